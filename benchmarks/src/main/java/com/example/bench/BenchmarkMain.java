@@ -0,0 +1,23 @@
+package com.example.bench;
+
+import org.openjdk.jmh.Main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * JMH giriş noktası. Sonuç biçimi belirtilmemişse sonuçlar sürümler arasında
+ * karşılaştırılabilmesi için target/jmh-result.json dosyasına JSON olarak yazılır.
+ */
+public final class BenchmarkMain {
+    private BenchmarkMain() {}
+
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        if (!options.contains("-rf")) {
+            options.addAll(List.of("-rf", "json", "-rff", "target/jmh-result.json"));
+        }
+        Main.main(options.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.bench;
+
+import com.example.db.DatabaseManager;
+import com.example.model.Product;
+import com.example.model.Sale;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DatabaseManagerBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    public int rows;
+
+    private DatabaseManager db;
+    private int products;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        DatasetFactory.openWorkingCopy(rows, "db");
+        db = DatabaseManager.getInstance();
+        products = DatasetFactory.productCount(rows);
+    }
+
+    @Benchmark
+    public Sale addSale() throws SQLException {
+        int productId = 1 + ThreadLocalRandom.current().nextInt(products);
+        Sale sale = new Sale(productId, "Ürün " + productId, 1, 13.0, 10.0);
+        db.addSale(sale);
+        return sale;
+    }
+
+    @Benchmark
+    public Product findByBarcode() throws SQLException {
+        int productId = 1 + ThreadLocalRandom.current().nextInt(products);
+        return db.findByBarcode(DatasetFactory.barcodeOf(productId));
+    }
+
+    // Rastgele bir günün satışları
+    @Benchmark
+    public List<Sale> getSalesByDateRange() throws SQLException {
+        long start = DatasetFactory.dayStartMillis(ThreadLocalRandom.current().nextInt(DatasetFactory.DAYS));
+        return db.getSalesByDateRange(new Date(start), new Date(start + 86_399_999L));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public List<Product> getAllProducts() throws SQLException {
+        return db.getAllProducts();
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.bench;
+
+import com.example.db.DatabaseManager;
+import com.example.db.StorageProfile;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Random;
+
+/**
+ * Performans testleri için tekrarlanabilir SQLite veri setleri üretir.
+ * Her boyut için "temiz" bir kopya bir kez üretilir (target/datasets altında);
+ * her deneme kendi çalışma kopyasını kullanır, böylece yazma testleri sonraki
+ * ölçümleri etkilemez.
+ *
+ * Satır sayısı satış tablosu içindir; ürün sayısı bunun onda biridir (en az 100).
+ * Satışlar DATASET_END tarihinde biten DAYS günlük bir aralığa dağıtılır.
+ */
+public final class DatasetFactory {
+    static final LocalDate DATASET_END = LocalDate.of(2025, 12, 31);
+    static final int DAYS = 730;
+    private static final Path DATA_DIR = Paths.get("target", "datasets");
+    private static final int BATCH_SIZE = 10_000;
+
+    private DatasetFactory() {}
+
+    static int productCount(int rows) {
+        return Math.max(100, rows / 10);
+    }
+
+    static String barcodeOf(int productId) {
+        return "BC" + productId;
+    }
+
+    static long dayStartMillis(int dayOffset) {
+        return DATASET_END.minusDays(DAYS - 1 - dayOffset)
+            .atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Veri setinin çalışma kopyasını hazırlar ve DatabaseManager'ın bu dosyayı
+     * açması için yapılandırma özelliğini ayarlar. DatabaseManager.getInstance()
+     * bundan sonra çağrılmalıdır.
+     */
+    static Path openWorkingCopy(int rows, String name) throws IOException, InterruptedException {
+        Path pristine = ensurePristine(rows);
+        Path copy = DATA_DIR.resolve("work-" + name + "-" + rows + ".db");
+        for (String suffix : new String[] {"", "-wal", "-shm"}) {
+            Path source = Paths.get(pristine + suffix);
+            Path target = Paths.get(copy + suffix);
+            if (Files.exists(source)) {
+                Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.deleteIfExists(target);
+            }
+        }
+
+        Path config = DATA_DIR.resolve("work-" + name + "-" + rows + ".properties");
+        try (Writer writer = Files.newBufferedWriter(config, StandardCharsets.UTF_8)) {
+            writer.write("db.url=jdbc:sqlite:" + copy.toAbsolutePath().toString().replace('\\', '/') + "\n");
+        }
+        System.setProperty(StorageProfile.CONFIG_PROPERTY, config.toAbsolutePath().toString());
+        return copy;
+    }
+
+    // Temiz kopya yoksa ayrı bir JVM'de üretir (DatabaseManager tekil olduğundan)
+    private static synchronized Path ensurePristine(int rows) throws IOException, InterruptedException {
+        Path pristine = DATA_DIR.resolve("stock-" + rows + ".db");
+        if (Files.exists(pristine)) {
+            return pristine;
+        }
+        Files.createDirectories(DATA_DIR);
+
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                DatasetFactory.class.getName(), String.valueOf(rows), pristine.toString())
+            .inheritIO()
+            .start();
+        if (process.waitFor() != 0 || !Files.exists(pristine)) {
+            throw new IOException("Veri seti üretilemedi: " + pristine);
+        }
+        return pristine;
+    }
+
+    // Kullanım: DatasetFactory <satır sayısı> <dosya>
+    public static void main(String[] args) throws Exception {
+        int rows = Integer.parseInt(args[0]);
+        Path target = Paths.get(args[1]);
+        Path temp = Paths.get(target + ".tmp");
+        Files.deleteIfExists(temp);
+
+        long start = System.currentTimeMillis();
+        generate(temp, rows);
+
+        // Şema göçlerini (indeksler, özet tablo) uygulamanın kendisi yapsın
+        Path config = Paths.get(temp + ".properties");
+        Files.writeString(config, "db.url=jdbc:sqlite:" + temp.toAbsolutePath().toString().replace('\\', '/') + "\n");
+        System.setProperty(StorageProfile.CONFIG_PROPERTY, config.toString());
+        DatabaseManager db = DatabaseManager.getInstance();
+        if (db.getSchemaVersion() == 0) {
+            throw new IllegalStateException("Şema göçleri uygulanamadı.");
+        }
+        checkpoint(temp);
+        Files.delete(config);
+
+        for (String suffix : new String[] {"", "-wal", "-shm"}) {
+            Path source = Paths.get(temp + suffix);
+            if (Files.exists(source)) {
+                Files.move(source, Paths.get(target + suffix), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        System.out.printf("Veri seti hazır: %s (%d satış, %d ürün, %d ms)%n",
+            target, rows, productCount(rows), System.currentTimeMillis() - start);
+        System.exit(0);
+    }
+
+    private static void generate(Path file, int rows) throws SQLException {
+        int products = productCount(rows);
+        Random random = new Random(42);
+
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + file)) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("PRAGMA journal_mode = OFF");
+                statement.execute("PRAGMA synchronous = OFF");
+                // Uygulamanın ilk göçüyle aynı temel tablolar
+                statement.execute("""
+                    CREATE TABLE products (
+                        id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        name TEXT NOT NULL,
+                        buy_price REAL NOT NULL,
+                        sell_price REAL NOT NULL,
+                        quantity INTEGER NOT NULL,
+                        critical_level INTEGER NOT NULL,
+                        barcode TEXT,
+                        supplier TEXT
+                    )
+                """);
+                statement.execute("""
+                    CREATE TABLE sales (
+                        id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        product_id INTEGER NOT NULL,
+                        product_name TEXT NOT NULL,
+                        quantity INTEGER NOT NULL,
+                        unit_price REAL NOT NULL,
+                        total_amount REAL NOT NULL,
+                        sale_date TIMESTAMP NOT NULL,
+                        profit REAL NOT NULL,
+                        FOREIGN KEY (product_id) REFERENCES products(id)
+                    )
+                """);
+            }
+
+            connection.setAutoCommit(false);
+            double[] buyPrices = new double[products + 1];
+            double[] sellPrices = new double[products + 1];
+            try (PreparedStatement pstmt = connection.prepareStatement("""
+                    INSERT INTO products (id, name, buy_price, sell_price, quantity, critical_level, barcode, supplier)
+                    VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                    """)) {
+                for (int id = 1; id <= products; id++) {
+                    buyPrices[id] = 1 + random.nextInt(500) + random.nextInt(100) / 100.0;
+                    sellPrices[id] = Math.round(buyPrices[id] * 1.3 * 100) / 100.0;
+                    pstmt.setInt(1, id);
+                    pstmt.setString(2, "Ürün " + id);
+                    pstmt.setDouble(3, buyPrices[id]);
+                    pstmt.setDouble(4, sellPrices[id]);
+                    pstmt.setInt(5, 1_000_000 + random.nextInt(1000));
+                    pstmt.setInt(6, 10);
+                    pstmt.setString(7, barcodeOf(id));
+                    pstmt.setString(8, "Tedarikçi " + (id % 50));
+                    pstmt.addBatch();
+                    if (id % BATCH_SIZE == 0) {
+                        pstmt.executeBatch();
+                    }
+                }
+                pstmt.executeBatch();
+            }
+
+            long rangeStart = dayStartMillis(0);
+            long rangeMillis = dayStartMillis(DAYS - 1) + 86_400_000L - rangeStart;
+            try (PreparedStatement pstmt = connection.prepareStatement("""
+                    INSERT INTO sales (product_id, product_name, quantity, unit_price, total_amount, sale_date, profit)
+                    VALUES (?, ?, ?, ?, ?, ?, ?)
+                    """)) {
+                for (int i = 1; i <= rows; i++) {
+                    int productId = 1 + random.nextInt(products);
+                    int quantity = 1 + random.nextInt(5);
+                    // Satışlar zamana göre sıralı eklenir, gerçek kullanımda olduğu gibi
+                    long saleDate = rangeStart + (long) ((double) (i - 1) / rows * rangeMillis);
+                    pstmt.setInt(1, productId);
+                    pstmt.setString(2, "Ürün " + productId);
+                    pstmt.setInt(3, quantity);
+                    pstmt.setDouble(4, sellPrices[productId]);
+                    pstmt.setDouble(5, quantity * sellPrices[productId]);
+                    pstmt.setLong(6, saleDate);
+                    pstmt.setDouble(7, (sellPrices[productId] - buyPrices[productId]) * quantity);
+                    pstmt.addBatch();
+                    if (i % BATCH_SIZE == 0) {
+                        pstmt.executeBatch();
+                    }
+                }
+                pstmt.executeBatch();
+            }
+            connection.commit();
+        }
+    }
+
+    private static void checkpoint(Path file) throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + file);
+             Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA wal_checkpoint(TRUNCATE)");
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.bench;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Çalışan bir PosApiServer'a yük bindirir ve saniyedeki istek sayısı ile
+ * gecikme yüzdeliklerini raporlar. Her iş parçacığı bir kasa terminali gibi
+ * arka arkaya barkod sorgusu ve satış gönderir. Barkodlar DatasetFactory'nin
+ * ürettiği biçimdedir (BC1 .. BC{products}).
+ *
+ *   java -cp target/benchmarks.jar com.example.bench.PosLoadTest http://127.0.0.1:8085 \
+ *        --threads 32 --seconds 20 --products 100000 --sale-ratio 0.5
+ */
+public final class PosLoadTest {
+    private PosLoadTest() {}
+
+    // İş parçacığı başına gecikme kaydı (nanosaniye)
+    private static final class Latencies {
+        long[] values = new long[1 << 16];
+        int size;
+
+        void add(long nanos) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Kullanım: PosLoadTest <adres> [--threads N] [--seconds N] [--products N] [--sale-ratio 0..1]");
+            System.exit(2);
+        }
+        String baseUrl = args[0];
+        int threads = 32;
+        int seconds = 20;
+        int products = 10_000;
+        double saleRatio = 0.5;
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--threads" -> threads = Integer.parseInt(args[i + 1]);
+                case "--seconds" -> seconds = Integer.parseInt(args[i + 1]);
+                case "--products" -> products = Integer.parseInt(args[i + 1]);
+                case "--sale-ratio" -> saleRatio = Double.parseDouble(args[i + 1]);
+                default -> throw new IllegalArgumentException("Bilinmeyen seçenek: " + args[i]);
+            }
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+        LongAdder failures = new LongAdder();
+        Latencies[] latencies = new Latencies[threads];
+        Thread[] workers = new Thread[threads];
+        long warmupEnd = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        long end = warmupEnd + Duration.ofSeconds(seconds).toNanos();
+
+        int productCount = products;
+        double ratio = saleRatio;
+        for (int t = 0; t < threads; t++) {
+            Latencies recorded = new Latencies();
+            latencies[t] = recorded;
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (true) {
+                    long start = System.nanoTime();
+                    if (start >= end) {
+                        return;
+                    }
+                    String barcode = DatasetFactory.barcodeOf(1 + random.nextInt(productCount));
+                    HttpRequest request = random.nextDouble() < ratio
+                        ? HttpRequest.newBuilder(URI.create(baseUrl + "/api/sales"))
+                            .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"barcode\":\"" + barcode + "\",\"quantity\":1}"))
+                            .header("Content-Type", "application/json")
+                            .build()
+                        : HttpRequest.newBuilder(URI.create(baseUrl + "/api/products/barcode/" + barcode))
+                            .GET()
+                            .build();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        long elapsed = System.nanoTime() - start;
+                        // Isınma süresindeki istekler sayılmaz
+                        if (start >= warmupEnd) {
+                            recorded.add(elapsed);
+                            statusCounts.computeIfAbsent(response.statusCode(), s -> new LongAdder()).increment();
+                        }
+                    } catch (Exception e) {
+                        failures.increment();
+                    }
+                }
+            }, "pos-load-" + t);
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        int total = 0;
+        for (Latencies recorded : latencies) {
+            total += recorded.size;
+        }
+        long[] all = new long[total];
+        int offset = 0;
+        for (Latencies recorded : latencies) {
+            System.arraycopy(recorded.values, 0, all, offset, recorded.size);
+            offset += recorded.size;
+        }
+        Arrays.sort(all);
+
+        System.out.printf("%d iş parçacığı, %d s: %d istek, %.0f istek/s%n",
+            threads, seconds, total, total / (double) seconds);
+        if (total > 0) {
+            System.out.printf("gecikme ms: p50 %.2f, p90 %.2f, p99 %.2f, en fazla %.2f%n",
+                percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99), all[total - 1] / 1e6);
+        }
+        System.out.println("durum kodları: " + statusCounts + ", bağlantı hatası: " + failures.sum());
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
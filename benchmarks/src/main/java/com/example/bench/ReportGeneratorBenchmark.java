@@ -0,0 +1,101 @@
+package com.example.bench;
+
+import com.example.db.DatabaseManager;
+import com.example.model.Sale;
+import com.example.model.SalesColumns;
+import com.example.util.ReportCharts;
+import com.example.util.ReportGenerator;
+import org.jfree.chart.JFreeChart;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rapor ve grafik üretimi. Girdi, veri setinin son 30 gününün satışlarıdır;
+ * satış sayısı veri seti boyutuyla orantılı büyür.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class ReportGeneratorBenchmark {
+    private static final int WINDOW_DAYS = 30;
+
+    @Param({"10000", "1000000", "10000000"})
+    public int rows;
+
+    private List<Sale> sales;
+    private SalesColumns salesColumns;
+    private Path reportFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        DatasetFactory.openWorkingCopy(rows, "report");
+        DatabaseManager db = DatabaseManager.getInstance();
+        long start = DatasetFactory.dayStartMillis(DatasetFactory.DAYS - WINDOW_DAYS);
+        long end = DatasetFactory.dayStartMillis(DatasetFactory.DAYS - 1) + 86_399_999L;
+        sales = db.getSalesByDateRange(new Date(start), new Date(end));
+        salesColumns = SalesColumns.of(sales);
+        reportFile = Files.createTempFile("sales-report", ".xlsx");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(reportFile);
+    }
+
+    @Benchmark
+    public void generateSalesReport() {
+        ReportGenerator.generateSalesReport(sales, reportFile.toString());
+    }
+
+    // Pencere açılamayan ortamda da ölçülebilmesi için grafik görüntüye çizilir
+    @Benchmark
+    public BufferedImage createSalesChart() {
+        return draw(ReportCharts.buildSalesChart(sales));
+    }
+
+    // Aynı grafik, önceden oluşturulmuş sütun dizilerinden
+    @Benchmark
+    public BufferedImage createSalesChartFromColumns() {
+        return draw(ReportCharts.buildSalesChart(salesColumns));
+    }
+
+    // Yalnızca günlük toplama çekirdeği (çizim hariç)
+    @Benchmark
+    public double[] aggregateAmountByDay() {
+        return salesColumns.amountByDay();
+    }
+
+    private static BufferedImage draw(JFreeChart chart) {
+        BufferedImage image = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            chart.draw(graphics, new Rectangle2D.Double(0, 0, 800, 600));
+        } finally {
+            graphics.dispose();
+        }
+        return image;
+    }
+}
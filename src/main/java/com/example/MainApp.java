@@ -3,31 +3,65 @@ package com.example;
 import com.example.db.DatabaseManager;
 import com.example.model.Product;
 import com.example.model.Sale;
+import com.example.service.AsyncDataService;
+import com.example.service.ReportJob;
+import com.example.util.CsvProductImporter;
+import com.example.util.ReportCharts;
 import com.example.util.ReportGenerator;
+import com.example.util.SalesExporter;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.awt.event.ActionEvent;
-import java.sql.SQLException;
+import java.io.File;
+import java.nio.file.Path;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
+import java.util.Objects;
 import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 public class MainApp extends JFrame {
+    // Sonuçları arayüz iş parçacığına (EDT) taşır
+    private static final Executor EDT = SwingUtilities::invokeLater;
+    // Yazarken arama: son tuştan bu kadar sonra sorgulanır
+    private static final int SEARCH_DELAY_MS = 200;
+    private static final int SEARCH_LIMIT = 20;
+    // Stok dağılım grafiğinde ayrı dilim olarak gösterilen ürün/tedarikçi sayısı
+    private static final int DISTRIBUTION_TOP_N = 10;
+    private static final int IMPORT_ERRORS_SHOWN = 10;
+
     private DatabaseManager dbManager;
+    private AsyncDataService dataService;
     private JTable productTable;
-    private DefaultTableModel productTableModel;
+    private ProductTableModel productTableModel;
     private JTextField nameField, buyPriceField, sellPriceField, quantityField;
     private JTextField criticalLevelField, barcodeField, supplierField;
     private JButton addButton, updateButton, deleteButton, sellButton;
     private JButton reportButton, chartButton;
     private SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+    private final JPopupMenu searchResultsPopup = new JPopupMenu();
+    // Geç gelen eski arama sonuçları yenisinin üzerine yazılmasın
+    private int searchSequence;
+    // Artımlı dışa aktarımda bir sonraki çalıştırmanın başlayacağı satış ID'si
+    private long lastExportedSaleId;
 
     public MainApp() {
         dbManager = DatabaseManager.getInstance();
+        dataService = new AsyncDataService(dbManager);
+        // JMX sunucusunun açılışı arayüzü bekletmesin
+        dataService.run(() -> dbManager.getMetrics().registerMBean());
+        // İlk barkod okutması indeksin yüklenmesini beklemesin
+        dataService.run(dbManager::preloadBarcodeIndex)
+            .exceptionally(ex -> showFailure("Barkod indeksi yüklenemedi: ", ex));
         initializeUI();
         loadProductData();
     }
@@ -75,25 +109,96 @@ public class MainApp extends JFrame {
         panel.add(new JLabel("Barkod: "));
         panel.add(barcodeSearchField);
 
+        // Ürün adı / tedarikçi araması
+        JTextField productSearchField = new JTextField(25);
+        Timer searchTimer = new Timer(SEARCH_DELAY_MS, e -> searchProducts(productSearchField));
+        searchTimer.setRepeats(false);
+        productSearchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+        });
+        // Enter ilk sonucu seçer
+        productSearchField.addActionListener(e -> {
+            if (searchResultsPopup.isVisible() && searchResultsPopup.getComponentCount() > 0) {
+                ((JMenuItem) searchResultsPopup.getComponent(0)).doClick();
+            }
+        });
+        searchResultsPopup.setFocusable(false);
+
+        panel.add(new JLabel("Ürün Ara: "));
+        panel.add(productSearchField);
+
         return panel;
     }
 
     private void searchByBarcode(String barcode) {
-        try {
-            for (int i = 0; i < productTableModel.getRowCount(); i++) {
-                String productBarcode = (String) productTableModel.getValueAt(i, 6); // Barkod sütunu
-                if (barcode.equals(productBarcode)) {
-                    // Ürünü seç ve görüntüle
-                    productTable.setRowSelectionInterval(i, i);
-                    productTable.scrollRectToVisible(productTable.getCellRect(i, 0, true));
-                    loadSelectedProduct();
-                    return;
+        dataService.supply(() -> dbManager.findProductIdByBarcode(barcode))
+            .thenAcceptAsync(productId -> {
+                if (productId < 0 || !selectProduct(productId)) {
+                    showError("Barkod bulunamadı: " + barcode);
                 }
-            }
-            showError("Barkod bulunamadı: " + barcode);
-        } catch (Exception ex) {
-            showError("Barkod arama hatası: " + ex.getMessage());
+            }, EDT)
+            .exceptionally(ex -> showFailure("Barkod arama hatası: ", ex));
+    }
+
+    private void searchProducts(JTextField searchField) {
+        String query = searchField.getText();
+        int sequence = ++searchSequence;
+        if (query.isBlank()) {
+            searchResultsPopup.setVisible(false);
+            return;
+        }
+        dataService.supply(() -> dbManager.searchProducts(query, SEARCH_LIMIT))
+            .thenAcceptAsync(products -> {
+                if (sequence == searchSequence) {
+                    showSearchResults(searchField, products);
+                }
+            }, EDT)
+            .exceptionally(ex -> showFailure("Ürün arama hatası: ", ex));
+    }
+
+    private void showSearchResults(JTextField searchField, List<Product> products) {
+        searchResultsPopup.setVisible(false);
+        searchResultsPopup.removeAll();
+        if (products.isEmpty() || !searchField.isShowing()) {
+            return;
         }
+        for (Product product : products) {
+            String supplier = product.getSupplier() == null || product.getSupplier().isEmpty()
+                ? ""
+                : " (" + product.getSupplier() + ")";
+            JMenuItem item = new JMenuItem(product.getName() + supplier + " - Stok: " + product.getQuantity());
+            item.addActionListener(e -> {
+                searchResultsPopup.setVisible(false);
+                selectProduct(product.getId());
+            });
+            searchResultsPopup.add(item);
+        }
+        searchResultsPopup.show(searchField, 0, searchField.getHeight());
+    }
+
+    // Ürünü tabloda seçer ve görüntüler; ürün listede yoksa false döner
+    private boolean selectProduct(int productId) {
+        int row = productTableModel.rowOf(productId);
+        if (row < 0) {
+            return false;
+        }
+        productTable.setRowSelectionInterval(row, row);
+        productTable.scrollRectToVisible(productTable.getCellRect(row, 0, true));
+        loadSelectedProduct();
+        return true;
     }
 
     private JPanel createInputPanel() {
@@ -154,16 +259,10 @@ public class MainApp extends JFrame {
         JPanel panel = new JPanel(new BorderLayout());
         panel.setBorder(BorderFactory.createTitledBorder("Ürün Listesi"));
 
-        String[] columns = {
-            "ID", "Ürün Adı", "Alış Fiyatı", "Satış Fiyatı", 
-            "Miktar", "Kritik Seviye", "Barkod", "Tedarikçi"
-        };
-        productTableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        // Satırlar sayfa sayfa, görüntülendikçe yüklenir
+        productTableModel = new ProductTableModel(dbManager);
+        // Ekleme, güncelleme, silme ve satışlar tabloya satır bazında yansır
+        dbManager.addChangeListener(productTableModel);
         productTable = new JTable(productTableModel);
         productTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         productTable.getSelectionModel().addListSelectionListener(e -> {
@@ -212,6 +311,13 @@ public class MainApp extends JFrame {
         JMenuBar menuBar = new JMenuBar();
         
         JMenu fileMenu = new JMenu("Dosya");
+        JMenuItem importItem = new JMenuItem("Ürünleri İçe Aktar (CSV)");
+        importItem.addActionListener(this::importProducts);
+        fileMenu.add(importItem);
+        JMenuItem exportItem = new JMenuItem("Satışları Dışa Aktar (CSV/NDJSON)");
+        exportItem.addActionListener(this::exportSales);
+        fileMenu.add(exportItem);
+        fileMenu.addSeparator();
         JMenuItem exitItem = new JMenuItem("Çıkış");
         exitItem.addActionListener(e -> System.exit(0));
         fileMenu.add(exitItem);
@@ -221,8 +327,21 @@ public class MainApp extends JFrame {
         salesReportItem.addActionListener(this::generateSalesReport);
         JMenuItem stockReportItem = new JMenuItem("Stok Raporu");
         stockReportItem.addActionListener(this::generateStockReport);
+        JMenuItem fullReportItem = new JMenuItem("Tam Rapor");
+        fullReportItem.addActionListener(this::generateFullReport);
+        JMenuItem timeSeriesChartItem = new JMenuItem("Satış Zaman Grafiği");
+        timeSeriesChartItem.addActionListener(this::showTimeSeriesChart);
+        JMenuItem distributionChartItem = new JMenuItem("Stok Dağılım Grafiği");
+        distributionChartItem.addActionListener(this::showDistributionChart);
+        JMenuItem rebuildRollupItem = new JMenuItem("Satış Özetini Yeniden Oluştur");
+        rebuildRollupItem.addActionListener(this::rebuildSalesRollup);
         reportMenu.add(salesReportItem);
         reportMenu.add(stockReportItem);
+        reportMenu.add(fullReportItem);
+        reportMenu.add(timeSeriesChartItem);
+        reportMenu.add(distributionChartItem);
+        reportMenu.addSeparator();
+        reportMenu.add(rebuildRollupItem);
         
         menuBar.add(fileMenu);
         menuBar.add(reportMenu);
@@ -231,37 +350,22 @@ public class MainApp extends JFrame {
     }
 
     private void loadProductData() {
-        try {
-            List<Product> products = dbManager.getAllProducts();
-            productTableModel.setRowCount(0);
-            for (Product product : products) {
-                Object[] row = {
-                    product.getId(),
-                    product.getName(),
-                    product.getBuyPrice(),
-                    product.getSellPrice(),
-                    product.getQuantity(),
-                    product.getCriticalLevel(),
-                    product.getBarcode(),
-                    product.getSupplier()
-                };
-                productTableModel.addRow(row);
-            }
-        } catch (SQLException e) {
-            showError("Ürünler yüklenirken hata oluştu: " + e.getMessage());
-        }
+        dataService.supply(() -> ProductTableModel.loadSnapshot(dbManager))
+            .thenAcceptAsync(productTableModel::apply, EDT)
+            .exceptionally(ex -> showFailure("Ürünler yüklenirken hata oluştu: ", ex));
     }
 
     private void loadSelectedProduct() {
-        int selectedRow = productTable.getSelectedRow();
-        if (selectedRow >= 0) {
-            nameField.setText(productTableModel.getValueAt(selectedRow, 1).toString());
-            buyPriceField.setText(productTableModel.getValueAt(selectedRow, 2).toString());
-            sellPriceField.setText(productTableModel.getValueAt(selectedRow, 3).toString());
-            quantityField.setText(productTableModel.getValueAt(selectedRow, 4).toString());
-            criticalLevelField.setText(productTableModel.getValueAt(selectedRow, 5).toString());
-            barcodeField.setText(productTableModel.getValueAt(selectedRow, 6).toString());
-            supplierField.setText(productTableModel.getValueAt(selectedRow, 7).toString());
+        Product product = productTableModel.getProductAt(productTable.getSelectedRow());
+        if (product != null) {
+            nameField.setText(product.getName());
+            buyPriceField.setText(String.valueOf(product.getBuyPrice()));
+            sellPriceField.setText(String.valueOf(product.getSellPrice()));
+            quantityField.setText(String.valueOf(product.getQuantity()));
+            criticalLevelField.setText(String.valueOf(product.getCriticalLevel()));
+            // Barkod ve tedarikçi boş (NULL) olabilir
+            barcodeField.setText(Objects.toString(product.getBarcode(), ""));
+            supplierField.setText(Objects.toString(product.getSupplier(), ""));
         }
     }
 
@@ -296,14 +400,14 @@ public class MainApp extends JFrame {
             
             product.setSupplier(supplierField.getText());
 
-            dbManager.addProduct(product);
-            loadProductData();
-            clearFields();
-            showInfo("Ürün başarıyla eklendi. Barkod: " + product.getBarcode());
+            dataService.run(() -> dbManager.addProduct(product))
+                .thenRunAsync(() -> {
+                    clearFields();
+                    showInfo("Ürün başarıyla eklendi. Barkod: " + product.getBarcode());
+                }, EDT)
+                .exceptionally(ex -> showFailure("Ürün eklenirken hata oluştu: ", ex));
         } catch (NumberFormatException ex) {
             showError("Lütfen sayısal değerleri doğru formatta girin.");
-        } catch (SQLException ex) {
-            showError("Ürün eklenirken hata oluştu: " + ex.getMessage());
         }
     }
 
@@ -327,7 +431,9 @@ public class MainApp extends JFrame {
 
         try {
             Product product = new Product();
-            product.setId((Integer) productTableModel.getValueAt(selectedRow, 0));
+            Product selected = productTableModel.getProductAt(selectedRow);
+            product.setId(selected.getId());
+            product.setVersion(selected.getVersion());
             product.setName(nameField.getText());
             product.setBuyPrice(Double.parseDouble(buyPriceField.getText()));
             product.setSellPrice(Double.parseDouble(sellPriceField.getText()));
@@ -336,14 +442,14 @@ public class MainApp extends JFrame {
             product.setBarcode(barcodeField.getText());
             product.setSupplier(supplierField.getText());
 
-            dbManager.updateProduct(product);
-            loadProductData();
-            clearFields();
-            showInfo("Ürün başarıyla güncellendi.");
+            dataService.run(() -> dbManager.updateProduct(product))
+                .thenRunAsync(() -> {
+                    clearFields();
+                    showInfo("Ürün başarıyla güncellendi.");
+                }, EDT)
+                .exceptionally(ex -> showFailure("Ürün güncellenirken hata oluştu: ", ex));
         } catch (NumberFormatException ex) {
             showError("Lütfen sayısal değerleri doğru formatta girin.");
-        } catch (SQLException ex) {
-            showError("Ürün güncellenirken hata oluştu: " + ex.getMessage());
         }
     }
 
@@ -363,15 +469,13 @@ public class MainApp extends JFrame {
         );
 
         if (response == JOptionPane.YES_OPTION) {
-            try {
-                int productId = (Integer) productTableModel.getValueAt(selectedRow, 0);
-                dbManager.deleteProduct(productId);
-                loadProductData();
-                clearFields();
-                showInfo("Ürün başarıyla silindi.");
-            } catch (SQLException ex) {
-                showError("Ürün silinirken hata oluştu: " + ex.getMessage());
-            }
+            int productId = productTableModel.getProductAt(selectedRow).getId();
+            dataService.run(() -> dbManager.deleteProduct(productId))
+                .thenRunAsync(() -> {
+                    clearFields();
+                    showInfo("Ürün başarıyla silindi.");
+                }, EDT)
+                .exceptionally(ex -> showFailure("Ürün silinirken hata oluştu: ", ex));
         }
     }
 
@@ -392,7 +496,8 @@ public class MainApp extends JFrame {
 
             if (quantityStr != null && !quantityStr.trim().isEmpty()) {
                 int saleQuantity = Integer.parseInt(quantityStr);
-                int currentQuantity = (Integer) productTableModel.getValueAt(selectedRow, 4);
+                Product selected = productTableModel.getProductAt(selectedRow);
+                int currentQuantity = selected.getQuantity();
 
                 if (saleQuantity <= 0) {
                     showError("Satış miktarı 0'dan büyük olmalıdır.");
@@ -404,60 +509,106 @@ public class MainApp extends JFrame {
                     return;
                 }
 
-                int productId = (Integer) productTableModel.getValueAt(selectedRow, 0);
-                String productName = (String) productTableModel.getValueAt(selectedRow, 1);
-                double buyPrice = (Double) productTableModel.getValueAt(selectedRow, 2);
-                double sellPrice = (Double) productTableModel.getValueAt(selectedRow, 3);
-
                 Sale sale = new Sale(
-                    productId,
-                    productName,
+                    selected.getId(),
+                    selected.getName(),
                     saleQuantity,
-                    sellPrice,
-                    buyPrice
+                    selected.getSellPrice(),
+                    selected.getBuyPrice()
                 );
 
-                dbManager.addSale(sale);
-                loadProductData();
-                showInfo("Satış başarıyla kaydedildi.");
+                dataService.run(() -> dbManager.addSale(sale))
+                    .thenRunAsync(() -> {
+                            showInfo("Satış başarıyla kaydedildi.");
+                    }, EDT)
+                    .exceptionally(ex -> showFailure("Satış işlemi sırasında hata oluştu: ", ex));
             }
         } catch (NumberFormatException ex) {
             showError("Lütfen geçerli bir sayı girin.");
-        } catch (SQLException ex) {
-            showError("Satış işlemi sırasında hata oluştu: " + ex.getMessage());
         }
     }
 
     private void generateReport(ActionEvent e) {
-        try {
-            String startDateStr = JOptionPane.showInputDialog(
-                this,
-                "Başlangıç tarihini girin (yyyy-MM-dd):",
-                dateFormat.format(new Date())
-            );
+        Date[] range = promptDateRange();
+        if (range != null) {
+            startSalesReport(range[0], range[1], "Rapor başarıyla oluşturuldu: sales_report.xlsx");
+        }
+    }
 
-            String endDateStr = JOptionPane.showInputDialog(
-                this,
-                "Bitiş tarihini girin (yyyy-MM-dd):",
-                dateFormat.format(new Date())
-            );
+    private void generateSalesReport(ActionEvent e) {
+        Date[] range = promptDateRange();
+        if (range != null) {
+            startSalesReport(range[0], range[1], "Satış raporu başarıyla oluşturuldu: sales_report.xlsx");
+        }
+    }
 
-            if (startDateStr != null && endDateStr != null) {
-                Date startDate = dateFormat.parse(startDateStr);
-                Date endDate = dateFormat.parse(endDateStr);
+    // Büyük dosyalar arka planda aktarılır; tablo her grup yazıldığında yenilenir
+    private void importProducts(ActionEvent e) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileFilter(new FileNameExtensionFilter("CSV dosyaları", "csv", "txt"));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path file = chooser.getSelectedFile().toPath();
+        dataService.supply(() -> new CsvProductImporter(dbManager).importFile(file))
+            .thenAcceptAsync(result -> {
+                StringBuilder message = new StringBuilder("İçe aktarma tamamlandı: " + result);
+                result.getErrors().stream()
+                    .limit(IMPORT_ERRORS_SHOWN)
+                    .forEach(error -> message.append('\n').append(error));
+                if (result.getErrorCount() > IMPORT_ERRORS_SHOWN) {
+                    message.append("\n...");
+                }
+                showInfo(message.toString());
+            }, EDT)
+            .exceptionally(ex -> showFailure("İçe aktarma sırasında hata oluştu: ", ex));
+    }
 
-                List<Sale> sales = dbManager.getSalesByDateRange(startDate, endDate);
-                ReportGenerator.generateSalesReport(sales, "sales_report.xlsx");
-                showInfo("Rapor başarıyla oluşturuldu: sales_report.xlsx");
-            }
-        } catch (ParseException ex) {
-            showError("Tarih formatı hatalı. Lütfen yyyy-MM-dd formatında girin.");
-        } catch (SQLException ex) {
-            showError("Rapor oluşturulurken hata oluştu: " + ex.getMessage());
+    // Biçim dosya adından seçilir (.csv, .ndjson, sonuna .gz eklenirse sıkıştırılır).
+    // Varsayılan başlangıç ID'si bu oturumdaki son aktarımın kaldığı yerdir
+    private void exportSales(ActionEvent e) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("sales.csv.gz"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        String afterIdStr = JOptionPane.showInputDialog(
+            this,
+            "Bu satış ID'sinden sonraki satışlar aktarılsın (tümü için 0):",
+            lastExportedSaleId
+        );
+        if (afterIdStr == null) {
+            return;
+        }
+        long afterId;
+        try {
+            afterId = Long.parseLong(afterIdStr.trim());
+        } catch (NumberFormatException ex) {
+            showError("Lütfen geçerli bir sayı girin.");
+            return;
         }
+        Path file = chooser.getSelectedFile().toPath();
+        dataService.supply(() -> SalesExporter.exportSales(dbManager, file, afterId))
+            .thenAcceptAsync(result -> {
+                lastExportedSaleId = result.getLastSaleId();
+                showInfo("Satışlar dışa aktarıldı: " + result);
+            }, EDT)
+            .exceptionally(ex -> showFailure("Satışlar dışa aktarılırken hata oluştu: ", ex));
     }
 
-    private void generateSalesReport(ActionEvent e) {
+    // Tüm sayfalar paralel hazırlanır; süreler sonuç mesajında gösterilir
+    private void generateFullReport(ActionEvent e) {
+        Date[] range = promptDateRange();
+        if (range != null) {
+            dataService.supply(() -> ReportGenerator.generateFullReport(dbManager, range[0], range[1], "full_report.xlsx"))
+                .thenAcceptAsync(result -> showInfo("Tam rapor oluşturuldu: " + result), EDT)
+                .exceptionally(ex -> showFailure("Rapor oluşturulurken hata oluştu: ", ex));
+        }
+    }
+
+    // Başlangıç ve bitiş tarihini sorar; iptal edilirse ya da format hatalıysa null döner.
+    // Bitiş günü dahil: aralık bitiş gününün sonuna kadar uzatılır (ReportCli gibi)
+    private Date[] promptDateRange() {
         try {
             String startDateStr = JOptionPane.showInputDialog(
                 this,
@@ -473,41 +624,134 @@ public class MainApp extends JFrame {
 
             if (startDateStr != null && endDateStr != null) {
                 Date startDate = dateFormat.parse(startDateStr);
-                Date endDate = dateFormat.parse(endDateStr);
-
-                List<Sale> sales = dbManager.getSalesByDateRange(startDate, endDate);
-                ReportGenerator.generateSalesReport(sales, "sales_report.xlsx");
-                showInfo("Satış raporu başarıyla oluşturuldu: sales_report.xlsx");
+                Calendar endDay = Calendar.getInstance();
+                endDay.setTime(dateFormat.parse(endDateStr));
+                endDay.add(Calendar.DAY_OF_MONTH, 1);
+                Date endDate = new Date(endDay.getTimeInMillis() - 1);
+                if (endDate.before(startDate)) {
+                    showError("Bitiş tarihi başlangıçtan önce olamaz.");
+                    return null;
+                }
+                return new Date[] {startDate, endDate};
             }
         } catch (ParseException ex) {
             showError("Tarih formatı hatalı. Lütfen yyyy-MM-dd formatında girin.");
-        } catch (SQLException ex) {
-            showError("Rapor oluşturulurken hata oluştu: " + ex.getMessage());
         }
+        return null;
+    }
+
+    // Rapor arka planda üretilir; ilerleme penceresinden iptal edilebilir
+    private void startSalesReport(Date startDate, Date endDate, String successMessage) {
+        ProgressMonitor monitor = new ProgressMonitor(this, "Satış raporu hazırlanıyor...", "", 0, 100);
+        monitor.setMillisToDecideToPopup(200);
+
+        ReportJob[] job = new ReportJob[1];
+        job[0] = dataService.streamSalesReport(startDate, endDate, "sales_report.xlsx",
+            (done, total) -> EDT.execute(() -> {
+                if (monitor.isCanceled()) {
+                    job[0].cancel();
+                    return;
+                }
+                if (total > 0) {
+                    monitor.setProgress((int) (done * 100 / total));
+                }
+                monitor.setNote(done + " satır yazıldı");
+            }));
+
+        job[0].getFuture()
+            .thenRunAsync(() -> {
+                monitor.close();
+                showInfo(successMessage);
+            }, EDT)
+            .exceptionally(ex -> {
+                EDT.execute(monitor::close);
+                if (unwrap(ex) instanceof CancellationException) {
+                    EDT.execute(() -> showInfo("Rapor iptal edildi."));
+                    return null;
+                }
+                return showFailure("Rapor oluşturulurken hata oluştu: ", ex);
+            });
     }
 
     private void generateStockReport(ActionEvent e) {
-        try {
-            List<Product> products = dbManager.getAllProducts();
-            ReportGenerator.generateStockReport(products, "stock_report.xlsx");
-            showInfo("Stok raporu başarıyla oluşturuldu: stock_report.xlsx");
-        } catch (SQLException ex) {
-            showError("Rapor oluşturulurken hata oluştu: " + ex.getMessage());
-        }
+        dataService.run(() -> {
+                List<Product> products = dbManager.getAllProducts();
+                ReportGenerator.generateStockReport(products, "stock_report.xlsx");
+            })
+            .thenRunAsync(() -> showInfo("Stok raporu başarıyla oluşturuldu: stock_report.xlsx"), EDT)
+            .exceptionally(ex -> showFailure("Rapor oluşturulurken hata oluştu: ", ex));
+    }
+
+    private void rebuildSalesRollup(ActionEvent e) {
+        dataService.run(dbManager::rebuildSalesRollup)
+            .thenRunAsync(() -> showInfo("Satış özeti satış geçmişinden yeniden oluşturuldu."), EDT)
+            .exceptionally(ex -> showFailure("Satış özeti oluşturulurken hata oluştu: ", ex));
     }
 
     private void showChart(ActionEvent e) {
         try {
-            List<Sale> sales = dbManager.getSalesByDateRange(
-                dateFormat.parse(dateFormat.format(new Date())),
-                new Date()
-            );
-            ReportGenerator.createSalesChart(sales).setVisible(true);
-        } catch (SQLException | ParseException ex) {
+            Date startDate = dateFormat.parse(dateFormat.format(new Date()));
+            dataService.supply(() -> dbManager.getDailySales(startDate, new Date()))
+                .thenAcceptAsync(dailySales ->
+                    ReportCharts.createDailySalesChart(dailySales).setVisible(true), EDT)
+                .exceptionally(ex -> showFailure("Grafik oluşturulurken hata oluştu: ", ex));
+        } catch (ParseException ex) {
             showError("Grafik oluşturulurken hata oluştu: " + ex.getMessage());
         }
     }
 
+    // Tüm satış geçmişi; yakınlaştırılan aralık daha ince çözünürlükle yeniden yüklenir
+    private void showTimeSeriesChart(ActionEvent e) {
+        dataService.supply(dbManager::getFirstSaleDate)
+            .thenAcceptAsync(firstSale -> {
+                if (firstSale == null) {
+                    showInfo("Henüz satış kaydı yok.");
+                    return;
+                }
+                ReportCharts.createSalesTimeSeriesChart(
+                    (start, end) -> dataService.supply(() -> dbManager.getSalesSeries(start, end)),
+                    firstSale, new Date()).setVisible(true);
+            }, EDT)
+            .exceptionally(ex -> showFailure("Grafik oluşturulurken hata oluştu: ", ex));
+    }
+
+    private void showDistributionChart(ActionEvent e) {
+        String[] options = {"Ürüne Göre", "Tedarikçiye Göre"};
+        int choice = JOptionPane.showOptionDialog(
+            this,
+            "Stok değeri dağılımı nasıl gruplansın?",
+            "Stok Dağılım Grafiği",
+            JOptionPane.DEFAULT_OPTION,
+            JOptionPane.QUESTION_MESSAGE,
+            null,
+            options,
+            options[0]
+        );
+        if (choice < 0) {
+            return;
+        }
+
+        boolean bySupplier = choice == 1;
+        dataService.supply(() -> dbManager.getStockValueDistribution(DISTRIBUTION_TOP_N, bySupplier))
+            .thenAcceptAsync(shares -> ReportCharts.createProductDistributionChart(shares,
+                bySupplier ? "Tedarikçiye Göre Stok Değeri" : "Ürüne Göre Stok Değeri").setVisible(true), EDT)
+            .exceptionally(ex -> showFailure("Grafik oluşturulurken hata oluştu: ", ex));
+    }
+
+    // Arka plan işinden gelen hatayı EDT üzerinde gösterir
+    private Void showFailure(String prefix, Throwable ex) {
+        Throwable cause = unwrap(ex);
+        EDT.execute(() -> showError(prefix + cause.getMessage()));
+        return null;
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        while (ex instanceof CompletionException && ex.getCause() != null) {
+            ex = ex.getCause();
+        }
+        return ex;
+    }
+
     private void showError(String message) {
         JOptionPane.showMessageDialog(
             this,
@@ -534,7 +778,16 @@ public class MainApp extends JFrame {
         }
 
         SwingUtilities.invokeLater(() -> {
-            MainApp app = new MainApp();
+            MainApp app;
+            try {
+                app = new MainApp();
+            } catch (IllegalStateException e) {
+                // Veritabanı açılamadı (ör. şema göçü başarısız); yarım çalışmak yerine çıkılır
+                e.printStackTrace();
+                JOptionPane.showMessageDialog(null, e.getMessage(), "Hata", JOptionPane.ERROR_MESSAGE);
+                System.exit(1);
+                return;
+            }
             app.setVisible(true);
         });
     }
@@ -0,0 +1,279 @@
+package com.example;
+
+import com.example.db.DataChangeEvent;
+import com.example.db.DataChangeListener;
+import com.example.db.DatabaseManager;
+import com.example.model.Product;
+
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ürün tablosu için sanal model. Tüm ürünleri belleğe almak yerine yalnızca
+ * görünen satırların bulunduğu sayfaları anahtar kümesi sayfalamasıyla
+ * veritabanından çeker ve en son kullanılan sayfaları sınırlı bir önbellekte tutar.
+ *
+ * DatabaseManager'a dinleyici olarak eklendiğinde değişiklikleri tabloyu yeniden
+ * yüklemeden, yalnızca ilgili satırı güncelleyerek uygular.
+ */
+public class ProductTableModel extends AbstractTableModel implements DataChangeListener {
+    private static final long serialVersionUID = 1L;
+    private static final int PAGE_SIZE = 200;
+    private static final int MAX_CACHED_PAGES = 20;
+
+    private static final String[] COLUMNS = {
+        "ID", "Ürün Adı", "Alış Fiyatı", "Satış Fiyatı",
+        "Miktar", "Kritik Seviye", "Barkod", "Tedarikçi"
+    };
+    private static final Class<?>[] COLUMN_TYPES = {
+        Integer.class, String.class, Double.class, Double.class,
+        Integer.class, Integer.class, String.class, String.class
+    };
+
+    private final DatabaseManager dbManager;
+    private final Map<Integer, Product[]> pages = new LinkedHashMap<>(MAX_CACHED_PAGES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Product[]> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+    private int rowCount;
+    private int[] pageKeys = {0};
+
+    public ProductTableModel(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+    }
+
+    // Satır sayısı ve sayfa anahtarları; arka planda okunup EDT'de uygulanabilir
+    public static final class Snapshot {
+        private final int[] pageKeys;
+        private final int rowCount;
+
+        private Snapshot(int[] pageKeys, int rowCount) {
+            this.pageKeys = pageKeys;
+            this.rowCount = rowCount;
+        }
+    }
+
+    public static Snapshot loadSnapshot(DatabaseManager dbManager) throws SQLException {
+        return new Snapshot(dbManager.getProductPageKeys(PAGE_SIZE), dbManager.getProductCount());
+    }
+
+    // Satır sayısını ve sayfa anahtarlarını yeniler, önbelleği boşaltır
+    public void apply(Snapshot snapshot) {
+        pageKeys = snapshot.pageKeys;
+        rowCount = snapshot.rowCount;
+        pages.clear();
+        fireTableDataChanged();
+    }
+
+    public void refresh() throws SQLException {
+        apply(loadSnapshot(dbManager));
+    }
+
+    public Product getProductAt(int row) {
+        if (row < 0 || row >= rowCount) {
+            return null;
+        }
+        Product[] page = loadPage(row / PAGE_SIZE);
+        int offset = row % PAGE_SIZE;
+        return offset < page.length ? page[offset] : null;
+    }
+
+    // Ürünün tablodaki satırı; sayfa anahtarlarında ikili arama yapılır
+    public int rowOf(int productId) {
+        int search = Arrays.binarySearch(pageKeys, productId);
+        int pageIndex = search >= 0 ? search - 1 : -search - 2;
+        if (pageIndex < 0) {
+            return -1;
+        }
+
+        Product[] page = loadPage(pageIndex);
+        for (int i = 0; i < page.length; i++) {
+            if (page[i].getId() == productId) {
+                return pageIndex * PAGE_SIZE + i;
+            }
+        }
+        return -1;
+    }
+
+    // Değişikliği yapan iş parçacığından çağrılır; satır güncellemesi EDT'de yapılır
+    @Override
+    public void onDataChanged(DataChangeEvent event) {
+        if (event.getType() == DataChangeEvent.Type.PRODUCTS_RELOADED) {
+            try {
+                Snapshot snapshot = loadSnapshot(dbManager);
+                SwingUtilities.invokeLater(() -> apply(snapshot));
+            } catch (SQLException e) {
+                System.err.println("Ürün listesi güncellenemedi: " + e.getMessage());
+            }
+            return;
+        }
+        if (event.getType() == DataChangeEvent.Type.PRODUCT_DELETED) {
+            // Silinen satırdan sonraki sayfa sınırları kayar; anahtarlar burada,
+            // arka planda yeniden okunur
+            try {
+                Snapshot snapshot = loadSnapshot(dbManager);
+                SwingUtilities.invokeLater(() -> applyDelete(event.getProductId(), snapshot));
+            } catch (SQLException e) {
+                System.err.println("Ürün listesi güncellenemedi: " + e.getMessage());
+            }
+            return;
+        }
+        SwingUtilities.invokeLater(() -> applyChange(event));
+    }
+
+    private void applyChange(DataChangeEvent event) {
+        switch (event.getType()) {
+            case PRODUCT_INSERTED:
+                applyInsert(event.getProduct());
+                break;
+            case PRODUCT_UPDATED: {
+                int row = cachedRowOf(event.getProductId());
+                if (row >= 0) {
+                    pages.get(row / PAGE_SIZE)[row % PAGE_SIZE] = event.getProduct();
+                    fireTableRowsUpdated(row, row);
+                }
+                break;
+            }
+            case STOCK_CHANGED: {
+                int row = cachedRowOf(event.getProductId());
+                if (row >= 0) {
+                    Product product = pages.get(row / PAGE_SIZE)[row % PAGE_SIZE];
+                    product.setQuantity(product.getQuantity() + event.getQuantityDelta());
+                    product.setVersion(product.getVersion() + event.getVersionDelta());
+                    fireTableRowsUpdated(row, row);
+                }
+                break;
+            }
+            default:
+                break;
+        }
+    }
+
+    // Yeni ürünün ID'si en büyük olduğundan her zaman sona eklenir
+    private void applyInsert(Product product) {
+        int pageIndex = rowCount / PAGE_SIZE;
+        if (product.getId() <= pageKeys[pageKeys.length - 1]) {
+            reloadAll();
+            return;
+        }
+        if (pageIndex == pageKeys.length) {
+            // Yeni sayfanın anahtarı önceki son ID ile yeni ID arasındaki herhangi bir değer olabilir
+            pageKeys = Arrays.copyOf(pageKeys, pageKeys.length + 1);
+            pageKeys[pageIndex] = product.getId() - 1;
+        }
+        Product[] page = pages.get(pageIndex);
+        if (page != null) {
+            Product[] grown = Arrays.copyOf(page, page.length + 1);
+            grown[page.length] = product;
+            pages.put(pageIndex, grown);
+        }
+        rowCount++;
+        fireTableRowsInserted(rowCount - 1, rowCount - 1);
+    }
+
+    private void applyDelete(int productId, Snapshot snapshot) {
+        int row = cachedRowOf(productId);
+        pageKeys = snapshot.pageKeys;
+        rowCount = snapshot.rowCount;
+        if (row < 0) {
+            pages.clear();
+            fireTableDataChanged();
+            return;
+        }
+        // Silinen satırın sayfası ve sonrakiler kaydığı için önbellekten çıkarılır
+        pages.keySet().removeIf(pageIndex -> pageIndex >= row / PAGE_SIZE);
+        fireTableRowsDeleted(row, row);
+    }
+
+    private void reloadAll() {
+        try {
+            refresh();
+        } catch (SQLException e) {
+            System.err.println("Ürün listesi yenilenemedi: " + e.getMessage());
+        }
+    }
+
+    // Ürün önbellekteki bir sayfadaysa satırı, değilse -1 (veritabanına gitmez)
+    private int cachedRowOf(int productId) {
+        int search = Arrays.binarySearch(pageKeys, productId);
+        int pageIndex = search >= 0 ? search - 1 : -search - 2;
+        Product[] page = pageIndex >= 0 ? pages.get(pageIndex) : null;
+        if (page == null) {
+            return -1;
+        }
+        for (int i = 0; i < page.length; i++) {
+            if (page[i].getId() == productId) {
+                return pageIndex * PAGE_SIZE + i;
+            }
+        }
+        return -1;
+    }
+
+    private Product[] loadPage(int pageIndex) {
+        Product[] page = pages.get(pageIndex);
+        if (page == null) {
+            try {
+                List<Product> products = pageIndex < pageKeys.length
+                    ? dbManager.getProductsPage(pageKeys[pageIndex], PAGE_SIZE)
+                    : List.of();
+                page = products.toArray(new Product[0]);
+            } catch (SQLException e) {
+                System.err.println("Ürün sayfası yüklenemedi: " + e.getMessage());
+                page = new Product[0];
+            }
+            pages.put(pageIndex, page);
+        }
+        return page;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return COLUMN_TYPES[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Product product = getProductAt(row);
+        if (product == null) {
+            return null;
+        }
+        switch (column) {
+            case 0: return product.getId();
+            case 1: return product.getName();
+            case 2: return product.getBuyPrice();
+            case 3: return product.getSellPrice();
+            case 4: return product.getQuantity();
+            case 5: return product.getCriticalLevel();
+            case 6: return product.getBarcode();
+            case 7: return product.getSupplier();
+            default: return null;
+        }
+    }
+}
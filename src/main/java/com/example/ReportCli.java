@@ -0,0 +1,176 @@
+package com.example;
+
+import com.example.db.DatabaseManager;
+import com.example.util.ExportResult;
+import com.example.util.FullReportResult;
+import com.example.util.ReportGenerator;
+import com.example.util.SalesExporter;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Zamanlanmış görevler (cron) için başsız komut satırı girişi. MainApp'e ve
+ * grafik sınıflarına dokunmaz; ekran gerekmez. Raporlar POI ile değil
+ * StreamingWorkbook ile yazılır: bu yolda Swing/AWT, JFreeChart ve POI/XMLBeans
+ * sınıfı yüklenmez (-verbose:class ile denetlenebilir). Başlangıç süresinin
+ * çoğu JVM açılışı ve SQLite yerel kütüphanesinin yüklenmesidir. Örnek:
+ *
+ *   java -cp "desktop-app.jar:lib/*" com.example.ReportCli report sales --from 2024-01-01 --to 2024-01-31
+ *
+ * Çıkış kodu: 0 başarılı, 1 çalışma hatası, 2 hatalı kullanım.
+ */
+public class ReportCli {
+    private static final String USAGE = """
+        Kullanım:
+          report sales --from yyyy-MM-dd --to yyyy-MM-dd [--out sales_report.xlsx]
+          report stock [--out stock_report.xlsx]
+          report full  --from yyyy-MM-dd --to yyyy-MM-dd [--out full_report.xlsx]
+          export sales [--out sales.csv.gz] [--since SATIŞ_ID]
+          archive sales
+
+        Tarih aralığına her iki gün de dahildir. Dışa aktarmada biçim dosya adından
+        seçilir (.csv, .ndjson; sonuna .gz eklenirse sıkıştırılır). --since verilirse
+        yalnızca bu ID'den sonraki satışlar aktarılır; son ID çıktıda yazılır.
+        Arşivleme kapanmış ayların satışlarını aylık arşiv dosyalarına taşır.
+        """;
+
+    private static final int EXIT_OK = 0;
+    private static final int EXIT_FAILURE = 1;
+    private static final int EXIT_USAGE = 2;
+
+    // Hatalı komut ya da seçenek
+    private static class UsageException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        UsageException(String message) {
+            super(message);
+        }
+    }
+
+    public static void main(String[] args) {
+        // Ekransız sunucuda yanlışlıkla AWT'ye dokunulursa hata vermesin
+        System.setProperty("java.awt.headless", "true");
+        System.exit(run(args));
+    }
+
+    static int run(String[] args) {
+        if (args.length < 2) {
+            System.err.print(USAGE);
+            return EXIT_USAGE;
+        }
+        try {
+            Map<String, String> options = parseOptions(args);
+            String command = args[0] + " " + args[1];
+            switch (command) {
+                case "report sales", "report stock", "report full", "export sales", "archive sales" -> { }
+                default -> throw new UsageException("Bilinmeyen komut: " + command);
+            }
+
+            DatabaseManager dbManager = DatabaseManager.getInstance();
+            try {
+                switch (command) {
+                    case "report sales" -> reportSales(dbManager, options);
+                    case "report stock" -> reportStock(dbManager, options);
+                    case "report full" -> reportFull(dbManager, options);
+                    case "archive sales" -> archiveSales(dbManager);
+                    default -> exportSales(dbManager, options);
+                }
+            } finally {
+                dbManager.close();
+            }
+            return EXIT_OK;
+        } catch (UsageException e) {
+            System.err.println(e.getMessage());
+            System.err.print(USAGE);
+            return EXIT_USAGE;
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Hata: " + e.getMessage());
+            return EXIT_FAILURE;
+        }
+    }
+
+    private static void reportSales(DatabaseManager dbManager, Map<String, String> options)
+            throws SQLException, UsageException {
+        Date[] range = dateRange(options);
+        String out = options.getOrDefault("out", "sales_report.xlsx");
+        long start = System.nanoTime();
+        ReportGenerator.streamSalesReport(dbManager, range[0], range[1], out);
+        System.out.printf("Satış raporu oluşturuldu: %s (%d ms)%n", out, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void reportStock(DatabaseManager dbManager, Map<String, String> options) throws SQLException {
+        String out = options.getOrDefault("out", "stock_report.xlsx");
+        long start = System.nanoTime();
+        ReportGenerator.generateStockReport(dbManager.getAllProducts(), out);
+        System.out.printf("Stok raporu oluşturuldu: %s (%d ms)%n", out, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void reportFull(DatabaseManager dbManager, Map<String, String> options)
+            throws SQLException, UsageException {
+        Date[] range = dateRange(options);
+        FullReportResult result = ReportGenerator.generateFullReport(dbManager, range[0], range[1],
+            options.getOrDefault("out", "full_report.xlsx"));
+        System.out.println("Tam rapor oluşturuldu: " + result);
+    }
+
+    private static void exportSales(DatabaseManager dbManager, Map<String, String> options)
+            throws SQLException, UsageException {
+        long since;
+        try {
+            since = Long.parseLong(options.getOrDefault("since", "0"));
+        } catch (NumberFormatException e) {
+            throw new UsageException("Geçersiz satış ID'si: " + options.get("since"));
+        }
+        ExportResult result = SalesExporter.exportSales(dbManager,
+            Path.of(options.getOrDefault("out", "sales.csv.gz")), since);
+        System.out.println("Satışlar dışa aktarıldı: " + result);
+    }
+
+    private static void archiveSales(DatabaseManager dbManager) throws SQLException {
+        long start = System.nanoTime();
+        long moved = dbManager.archiveSales();
+        System.out.printf("Satış arşivi güncellendi: %d satış taşındı (%d ms)%n", moved,
+            (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // --ad değer çiftleri; komut sözcüklerinden (ilk iki argüman) sonra gelir
+    private static Map<String, String> parseOptions(String[] args) throws UsageException {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 2; i < args.length; i += 2) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new UsageException("Hatalı seçenek: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+    // Bitiş günü dahil: aralık bitiş gününün sonuna kadar uzatılır
+    private static Date[] dateRange(Map<String, String> options) throws UsageException {
+        String from = options.get("from");
+        String to = options.get("to");
+        if (from == null || to == null) {
+            throw new UsageException("--from ve --to gerekli.");
+        }
+        try {
+            ZoneId zone = ZoneId.systemDefault();
+            LocalDate startDay = LocalDate.parse(from);
+            LocalDate endDay = LocalDate.parse(to);
+            if (endDay.isBefore(startDay)) {
+                throw new UsageException("Bitiş tarihi başlangıçtan önce olamaz.");
+            }
+            Date start = Date.from(startDay.atStartOfDay(zone).toInstant());
+            Date end = new Date(endDay.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli() - 1);
+            return new Date[] {start, end};
+        } catch (DateTimeParseException e) {
+            throw new UsageException("Tarih formatı hatalı. Lütfen yyyy-MM-dd formatında girin.");
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.db;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Barkod → ürün ID eşlemesini bellekte tutar. Açılışta veritabanından bir kez
+ * yüklenir; ürün ekleme, güncelleme ve silme işlemleri başarılı olduktan sonra
+ * DatabaseManager tarafından güncellenir. Arama maliyeti katalog boyutundan
+ * bağımsızdır (hedef: 200 bin üründe arama başına 1 µs altı).
+ */
+class BarcodeIndex {
+    static final int NOT_FOUND = -1;
+
+    private final Map<String, Integer> idsByBarcode = new ConcurrentHashMap<>();
+    // Güncellemede eski barkodu silebilmek için ters eşleme
+    private final Map<Integer, String> barcodesById = new ConcurrentHashMap<>();
+
+    int find(String barcode) {
+        if (barcode == null) {
+            return NOT_FOUND;
+        }
+        Integer id = idsByBarcode.get(barcode);
+        return id != null ? id : NOT_FOUND;
+    }
+
+    synchronized void put(int productId, String barcode) {
+        String previous = barcodesById.remove(productId);
+        if (previous != null) {
+            idsByBarcode.remove(previous, productId);
+        }
+        if (barcode != null) {
+            idsByBarcode.put(barcode, productId);
+            barcodesById.put(productId, barcode);
+        }
+    }
+
+    synchronized void remove(int productId) {
+        String previous = barcodesById.remove(productId);
+        if (previous != null) {
+            idsByBarcode.remove(previous, productId);
+        }
+    }
+
+    synchronized void clear() {
+        idsByBarcode.clear();
+        barcodesById.clear();
+    }
+
+    int size() {
+        return idsByBarcode.size();
+    }
+}
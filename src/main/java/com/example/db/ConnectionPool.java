@@ -0,0 +1,136 @@
+package com.example.db;
+
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteConnection;
+import org.sqlite.SQLiteLimits;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sabit boyutlu SQLite bağlantı havuzu. Her bağlantının kendi ifade önbelleği
+ * vardır; böylece sık kullanılan sorgular bağlantı başına bir kez hazırlanır.
+ */
+class ConnectionPool implements AutoCloseable {
+    private final long acquireTimeoutMs;
+    private final BlockingQueue<PooledConnection> idle;
+    private final List<PooledConnection> all = new ArrayList<>();
+    private volatile boolean closed;
+
+    ConnectionPool(StorageProfile profile, int size, boolean readOnly, StatementCacheStats stats,
+                   DatabaseMetrics metrics) throws SQLException {
+        this.idle = new ArrayBlockingQueue<>(size);
+        this.acquireTimeoutMs = profile.getAcquireTimeoutMs();
+
+        SQLiteConfig config = new SQLiteConfig();
+        // Yazma kilidi başka bir bağlantıdayken hemen SQLITE_BUSY dönmesin
+        config.setBusyTimeout(profile.getBusyTimeoutMs());
+        config.setReadOnly(readOnly);
+
+        try {
+            for (int i = 0; i < size; i++) {
+                Connection connection = DriverManager.getConnection(profile.getUrl(), config.toProperties());
+                try {
+                    profile.applyPragmas(connection, readOnly);
+                    // Satış arşivleri için varsayılan 10 ATTACH sınırı derleme üst sınırına çekilir
+                    connection.unwrap(SQLiteConnection.class)
+                        .setLimit(SQLiteLimits.SQLITE_LIMIT_ATTACHED, SalesArchive.ATTACH_LIMIT);
+                } catch (SQLException e) {
+                    connection.close();
+                    throw e;
+                }
+
+                PooledConnection pooled = new PooledConnection(
+                    connection, new StatementCache(connection, profile.getStatementCacheSize(), stats, metrics), this);
+                all.add(pooled);
+                idle.add(pooled);
+            }
+        } catch (SQLException e) {
+            close();
+            throw e;
+        }
+    }
+
+    PooledConnection acquire() throws SQLException {
+        if (closed) {
+            throw new SQLException("Bağlantı havuzu kapatılmış.");
+        }
+        try {
+            PooledConnection connection = idle.poll(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+            if (connection == null) {
+                throw new SQLException("Bağlantı havuzunda boş bağlantı bulunamadı.");
+            }
+            return connection;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Bağlantı beklenirken kesildi.", e);
+        }
+    }
+
+    void release(PooledConnection pooled) {
+        if (closed) {
+            // Kapanış iadeyi beklediği için bağlantı kapatılıp yine kuyruğa konur;
+            // close() tüm bağlantılar dönünce süre dolmadan biter
+            pooled.closePhysical();
+            idle.offer(pooled);
+            return;
+        }
+        try {
+            // Yarım kalmış işlem varsa sonraki kullanıcıya taşınmasın
+            Connection connection = pooled.connection();
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Bağlantı havuza iade edilirken hata: " + e.getMessage());
+        }
+        idle.offer(pooled);
+    }
+
+    int size() {
+        return all.size();
+    }
+
+    // Ödünçteki bağlantıların iadesi acquireTimeoutMs kadar beklenir; süre
+    // dolarsa kalan bağlantılar da kapatılır (üzerindeki işlem geri alınır).
+    // İkinci çağrı bir şey yapmaz
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        long deadline = System.currentTimeMillis() + acquireTimeoutMs;
+        try {
+            for (int returned = 0; returned < all.size(); returned++) {
+                long remaining = deadline - System.currentTimeMillis();
+                PooledConnection pooled = idle.poll(Math.max(remaining, 0), TimeUnit.MILLISECONDS);
+                if (pooled == null) {
+                    break;
+                }
+                pooled.closePhysical();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // İade edilmeyenlerin ifade önbelleği ödünç alan iş parçacığında; yalnızca
+        // bağlantı kapatılır, önbellek iade sırasında (release) temizlenir
+        for (PooledConnection pooled : all) {
+            try {
+                pooled.connection().close();
+            } catch (SQLException e) {
+                System.err.println("Bağlantı kapatılamadı: " + e.getMessage());
+            }
+        }
+        idle.clear();
+    }
+}
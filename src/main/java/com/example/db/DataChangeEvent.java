@@ -0,0 +1,82 @@
+package com.example.db;
+
+import com.example.model.Product;
+
+/**
+ * DatabaseManager'ın bir değişiklik veritabanına işlendikten sonra
+ * dinleyicilere yayınladığı olay.
+ */
+public class DataChangeEvent {
+
+    public enum Type {
+        PRODUCT_INSERTED,
+        PRODUCT_UPDATED,
+        PRODUCT_DELETED,
+        // Satış sonucu stok miktarı quantityDelta, sürüm versionDelta kadar değişti
+        STOCK_CHANGED,
+        // Toplu işlemde çok sayıda ürün değişti (ör. CSV içe aktarma); liste yeniden yüklenmeli
+        PRODUCTS_RELOADED
+    }
+
+    private final Type type;
+    private final int productId;
+    private final Product product;
+    private final int quantityDelta;
+    private final int versionDelta;
+
+    private DataChangeEvent(Type type, int productId, Product product, int quantityDelta, int versionDelta) {
+        this.type = type;
+        this.productId = productId;
+        this.product = product;
+        this.quantityDelta = quantityDelta;
+        this.versionDelta = versionDelta;
+    }
+
+    static DataChangeEvent productInserted(Product product) {
+        return new DataChangeEvent(Type.PRODUCT_INSERTED, product.getId(), product, 0, 0);
+    }
+
+    static DataChangeEvent productUpdated(Product product) {
+        return new DataChangeEvent(Type.PRODUCT_UPDATED, product.getId(), product, 0, 0);
+    }
+
+    static DataChangeEvent productDeleted(int productId) {
+        return new DataChangeEvent(Type.PRODUCT_DELETED, productId, null, 0, 0);
+    }
+
+    // Stok düşümü satış başına sürümü bir artırır; toplu satışta aynı ürünün
+    // birden çok satışı tek olayda birleştiğinden versionDelta satış sayısıdır
+    static DataChangeEvent stockChanged(int productId, int quantityDelta, int versionDelta) {
+        return new DataChangeEvent(Type.STOCK_CHANGED, productId, null, quantityDelta, versionDelta);
+    }
+
+    static DataChangeEvent productsReloaded() {
+        return new DataChangeEvent(Type.PRODUCTS_RELOADED, 0, null, 0, 0);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getProductId() {
+        return productId;
+    }
+
+    // Ekleme ve güncellemede yazılan ürün, diğer olaylarda null; değiştirilmemelidir
+    public Product getProduct() {
+        return product;
+    }
+
+    public int getQuantityDelta() {
+        return quantityDelta;
+    }
+
+    public int getVersionDelta() {
+        return versionDelta;
+    }
+
+    @Override
+    public String toString() {
+        return type + " (ürün ID: " + productId + ")";
+    }
+}
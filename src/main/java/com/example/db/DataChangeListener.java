@@ -0,0 +1,11 @@
+package com.example.db;
+
+/**
+ * Veritabanı değişiklik olaylarını dinler. Olaylar değişikliği yapan iş
+ * parçacığında, işlem onaylandıktan sonra iletilir; arayüz dinleyicileri
+ * güncellemeyi EDT'ye kendileri taşımalıdır.
+ */
+@FunctionalInterface
+public interface DataChangeListener {
+    void onDataChanged(DataChangeEvent event);
+}
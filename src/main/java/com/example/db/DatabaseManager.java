@@ -1,308 +1,1337 @@
 package com.example.db;
 
+import com.example.model.DailySales;
 import com.example.model.Product;
 import com.example.model.Sale;
+import com.example.model.SalesSeries;
+import com.example.model.StockShare;
+import com.example.model.SupplierSummary;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.sql.*;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
-public class DatabaseManager {
-    private static final String DB_URL = "jdbc:sqlite:stock_management.db";
-    private static DatabaseManager instance;
-    private Connection connection;
+/**
+ * Veritabanı erişiminin tek giriş noktası.
+ *
+ * Eşzamanlılık sözleşmesi:
+ * - Tüm genel metotlar birden fazla iş parçacığından aynı anda çağrılabilir.
+ *   Her çağrı havuzdan kendi bağlantısını alır ve iş bitince iade eder;
+ *   bağlantılar ve hazırlanmış ifadeler iş parçacıkları arasında paylaşılmaz.
+ * - Okumalar salt okunur havuzdan yapılır ve WAL sayesinde yazmaları beklemez.
+ *   Yazmalar yazma havuzundan yapılır; SQLite yazmaları yine de sıraya koyar.
+ * - Aynı ürüne yapılan satışlar ürün bazlı kilitlerle sıralanır; ürün
+ *   güncellemeleri sürüm (version) kontrolüyle çakışmaları reddeder.
+ * - Model nesneleri (Product, Sale) iş parçacığı güvenli değildir; çağıran
+ *   taraf aynı nesneyi birden fazla iş parçacığıyla paylaşmamalıdır.
+ * - Genel metotların süreleri DatabaseMetrics ile ölçülür; iç içe çağrılar
+ *   (ör. addSale -> addSales) her iki işlemde de sayılır.
+ * - close() sonrasında çağrılar SQLException fırlatır; getInstance() bir
+ *   sonraki çağrıda yeni bir örnek açar. JVM kapanırken close() otomatik çağrılır.
+ */
+public class DatabaseManager implements AutoCloseable {
+    private static final int SEARCH_RANK_WINDOW = 500;
+    // Satış serisi çözünürlükleri: aralık kısaldıkça daha ince kovalar kullanılır
+    private static final long FIVE_MINUTES_MS = 5 * 60_000L;
+    private static final long HOUR_MS = 60 * 60_000L;
+    private static final long DAY_MS = 24 * HOUR_MS;
+    private static volatile DatabaseManager instance;
+    private final StatementCacheStats statementCacheStats = new StatementCacheStats();
+    private final StorageProfile profile = StorageProfile.load();
+    // Genel metotların gecikme ölçümleri ve yavaş sorgu kaydı (metrics.*)
+    private final DatabaseMetrics metrics = new DatabaseMetrics(profile.getInt("metrics.slow.query.ms", 200));
+    private ConnectionPool pool;
+    // Salt okunur sorgular (rapor, grafik, düşük stok) ayrı bağlantılardan okunur;
+    // WAL modunda okuyucular yazıcıyı bloklamaz
+    private ConnectionPool readPool;
+    private final BarcodeIndex barcodeIndex = new BarcodeIndex();
+    private volatile boolean barcodeIndexLoaded;
+    // Süreç içi satışlar için ürün bazlı kilitler
+    private final StripedLock stockLocks = new StripedLock(64);
+    // Günlük modu açıksa satışlar önce günlüğe yazılır (journal.enabled)
+    private SaleJournal journal;
+    private SaleJournalFlusher journalFlusher;
+    // Kapanmış ayların satışları aylık arşiv dosyalarında tutulur (sales.archive.*)
+    private final SalesArchive salesArchive = new SalesArchive(profile);
+    private ScheduledExecutorService archiveScheduler;
+
+    private final List<DataChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+    private final List<Runnable> shutdownTasks = new CopyOnWriteArrayList<>();
+    private final Thread shutdownHook = new Thread(this::shutdown, "database-shutdown");
+    private volatile boolean closed;
 
     private DatabaseManager() {
         initializeDatabase();
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
     }
 
     public static DatabaseManager getInstance() {
-        if (instance == null) {
-            instance = new DatabaseManager();
+        DatabaseManager result = instance;
+        if (result == null) {
+            synchronized (DatabaseManager.class) {
+                result = instance;
+                if (result == null) {
+                    result = new DatabaseManager();
+                    instance = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * JVM kapanırken bağlantılar kapatılmadan önce, eklenme sırasıyla çalıştırılır
+     * (ör. HTTP sunucusunu durdurup kuyruktaki satışları yazmak). Kapanış kancaları
+     * eşzamanlı ve sırasız çalıştığından ayrı bir kanca yerine bu kullanılmalıdır.
+     */
+    public void addShutdownTask(Runnable task) {
+        shutdownTasks.add(task);
+    }
+
+    private void shutdown() {
+        for (Runnable task : shutdownTasks) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                System.err.println("Kapanış görevi başarısız: " + e.getMessage());
+            }
         }
-        return instance;
+        close();
+    }
+
+    /**
+     * Günlükte bekleyen satışları yazar ve tüm bağlantıları kapatır. Devam eden
+     * işlemlerin bağlantıyı iade etmesi beklenir. Birden fazla kez çağrılabilir.
+     */
+    @Override
+    public void close() {
+        synchronized (DatabaseManager.class) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (instance == this) {
+                instance = null;
+            }
+        }
+        if (Thread.currentThread() != shutdownHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // JVM zaten kapanıyor
+            }
+        }
+        // Kapanış sürerken açılan yeni örneğin JMX kaydı silinmesin diye önce kaldırılır
+        metrics.stopLogging();
+        metrics.unregisterMBean();
+        if (archiveScheduler != null) {
+            archiveScheduler.shutdownNow();
+        }
+
+        if (journalFlusher != null) {
+            try {
+                journalFlusher.stop();
+            } catch (SQLException e) {
+                System.err.println("Satış günlüğü boşaltılamadı: " + e.getMessage());
+            }
+            try {
+                journal.close();
+            } catch (IOException e) {
+                System.err.println("Satış günlüğü kapatılamadı: " + e.getMessage());
+            }
+        }
+        if (readPool != null) {
+            readPool.close();
+        }
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
     }
 
     private void initializeDatabase() {
         try {
-            connection = DriverManager.getConnection(DB_URL);
+            metrics.startLogging(profile.getInt("metrics.log.interval.s", 300));
+            pool = new ConnectionPool(profile, profile.getWritePoolSize(), false, statementCacheStats, metrics);
             createTables();
+            // Okuma havuzu şema oluşturulduktan sonra açılır
+            readPool = new ConnectionPool(profile, profile.getReadPoolSize(), true, statementCacheStats, metrics);
+            openSaleJournal();
+            startSalesArchiver();
         } catch (SQLException e) {
-            e.printStackTrace();
-            System.err.println("Veritabanı bağlantısı kurulamadı: " + e.getMessage());
+            // Şeması eksik bir veritabanında sorguların çoğu hata verir; yarım açılmak
+            // yerine açılış durdurulur
+            metrics.stopLogging();
+            if (readPool != null) {
+                readPool.close();
+            }
+            if (pool != null) {
+                pool.close();
+            }
+            throw new IllegalStateException("Veritabanı açılamadı: " + e.getMessage(), e);
         }
     }
 
-    private void createTables() {
-        try (Statement statement = connection.createStatement()) {
-            // Ürünler tablosu
-            statement.execute("""
-                CREATE TABLE IF NOT EXISTS products (
-                    id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    name TEXT NOT NULL,
-                    buy_price REAL NOT NULL,
-                    sell_price REAL NOT NULL,
-                    quantity INTEGER NOT NULL,
-                    critical_level INTEGER NOT NULL,
-                    barcode TEXT,
-                    supplier TEXT
-                )
-            """);
-
-            // Satışlar tablosu
-            statement.execute("""
-                CREATE TABLE IF NOT EXISTS sales (
-                    id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    product_id INTEGER NOT NULL,
-                    product_name TEXT NOT NULL,
-                    quantity INTEGER NOT NULL,
-                    unit_price REAL NOT NULL,
-                    total_amount REAL NOT NULL,
-                    sale_date TIMESTAMP NOT NULL,
-                    profit REAL NOT NULL,
-                    FOREIGN KEY (product_id) REFERENCES products(id)
-                )
-            """);
-        } catch (SQLException e) {
-            e.printStackTrace();
-            System.err.println("Tablolar oluşturulurken hata: " + e.getMessage());
+    // İlk çalıştırma bir aralık sonra yapılır; kısa ömürlü komutlar (ReportCli) arşivlemez
+    private void startSalesArchiver() {
+        long interval = profile.getInt("sales.archive.check.interval.min", 60);
+        if (!Boolean.parseBoolean(profile.getProperty("sales.archive.enabled", "true")) || interval <= 0) {
+            return;
         }
+        archiveScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sales-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        archiveScheduler.scheduleWithFixedDelay(() -> {
+            try {
+                archiveSales();
+            } catch (SQLException e) {
+                System.err.println("Satışlar arşivlenemedi: " + e.getMessage());
+            }
+        }, interval, interval, TimeUnit.MINUTES);
     }
 
-    // Ürün işlemleri
-    public void addProduct(Product product) throws SQLException {
-        // Barkod kontrolü
-        if (isBarcodeExists(product.getBarcode())) {
-            throw new SQLException("Bu barkod zaten kullanımda: " + product.getBarcode());
+    public void addChangeListener(DataChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    public void removeChangeListener(DataChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    // Bir dinleyicideki hata diğerlerini ve yazma işlemini etkilemez
+    private void fireChange(DataChangeEvent event) {
+        for (DataChangeListener listener : changeListeners) {
+            try {
+                listener.onDataChanged(event);
+            } catch (RuntimeException e) {
+                System.err.println("Değişiklik dinleyicisi hata verdi (" + event + "): " + e.getMessage());
+            }
         }
+    }
 
-        String sql = """
-            INSERT INTO products (name, buy_price, sell_price, quantity, critical_level, barcode, supplier)
-            VALUES (?, ?, ?, ?, ?, ?, ?)
-        """;
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            pstmt.setString(1, product.getName());
-            pstmt.setDouble(2, product.getBuyPrice());
-            pstmt.setDouble(3, product.getSellPrice());
-            pstmt.setInt(4, product.getQuantity());
-            pstmt.setInt(5, product.getCriticalLevel());
-            pstmt.setString(6, product.getBarcode());
-            pstmt.setString(7, product.getSupplier());
-            
-            pstmt.executeUpdate();
-            
-            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    product.setId(generatedKeys.getInt(1));
+    public StorageProfile getStorageProfile() {
+        return profile;
+    }
+
+    public StatementCacheStats getStatementCacheStats() {
+        return statementCacheStats;
+    }
+
+    public DatabaseMetrics getMetrics() {
+        return metrics;
+    }
+
+    private void createTables() throws SQLException {
+        try (PooledConnection conn = pool.acquire()) {
+            new SchemaMigrator().migrate(conn.connection());
+        }
+    }
+
+    /**
+     * Barkod indeksini hemen yükler. Barkod okutan uygulamalar (MainApp, PosApiServer)
+     * açılışta arka planda çağırır; böylece ilk okutma tüm indeksin yüklenmesini
+     * beklemez. Komut satırı raporları çağırmaz, indeks ilk kullanımda yüklenir.
+     */
+    public void preloadBarcodeIndex() throws SQLException {
+        metrics.call("preloadBarcodeIndex", BarcodeIndex::size, this::barcodeIndex);
+    }
+
+    // İndeks ilk kullanımda yüklenir; barkoda bakmayan komut satırı raporları
+    // açılışta tüm ürünleri okumaz. Yazmalar indeksi bu metotla aldığından
+    // yüklemeyle yarışan bir yazma, yükleme bittikten sonra indekse işlenir
+    private BarcodeIndex barcodeIndex() throws SQLException {
+        if (!barcodeIndexLoaded) {
+            synchronized (barcodeIndex) {
+                if (!barcodeIndexLoaded) {
+                    loadBarcodeIndex();
+                    barcodeIndexLoaded = true;
                 }
             }
         }
+        return barcodeIndex;
     }
 
-    public void updateProduct(Product product) throws SQLException {
-        // Barkod kontrolü (kendi ID'si hariç)
-        if (isBarcodeExistsExcept(product.getBarcode(), product.getId())) {
-            throw new SQLException("Bu barkod başka bir ürün tarafından kullanılıyor: " + product.getBarcode());
-        }
+    private void loadBarcodeIndex() throws SQLException {
+        String sql = "SELECT id, barcode FROM products WHERE barcode IS NOT NULL";
+        barcodeIndex.clear();
+        try (PooledConnection conn = readPool.acquire();
+             ResultSet rs = conn.prepare(sql).executeQuery()) {
 
-        String sql = """
-            UPDATE products 
-            SET name = ?, buy_price = ?, sell_price = ?, quantity = ?, 
-                critical_level = ?, barcode = ?, supplier = ?
-            WHERE id = ?
-        """;
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, product.getName());
-            pstmt.setDouble(2, product.getBuyPrice());
-            pstmt.setDouble(3, product.getSellPrice());
-            pstmt.setInt(4, product.getQuantity());
-            pstmt.setInt(5, product.getCriticalLevel());
-            pstmt.setString(6, product.getBarcode());
-            pstmt.setString(7, product.getSupplier());
-            pstmt.setInt(8, product.getId());
-            
-            pstmt.executeUpdate();
+            while (rs.next()) {
+                barcodeIndex.put(rs.getInt(1), rs.getString(2));
+            }
         }
     }
 
+    public int getSchemaVersion() throws SQLException {
+        return metrics.call("getSchemaVersion", () -> {
+            try (PooledConnection conn = readPool.acquire()) {
+                return new SchemaMigrator().currentVersion(conn.connection());
+            }
+        });
+    }
+
+    // Ürün işlemleri
+    public void addProduct(Product product) throws SQLException {
+        metrics.run("addProduct", 1, () -> {
+            String sql = """
+                INSERT INTO products (name, buy_price, sell_price, quantity, critical_level, barcode, supplier)
+                VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+            try (PooledConnection conn = pool.acquire()) {
+                // Barkod kontrolü
+                if (isBarcodeExists(product.getBarcode())) {
+                    throw new SQLException("Bu barkod zaten kullanımda: " + product.getBarcode());
+                }
+
+                PreparedStatement pstmt = conn.prepare(sql);
+                pstmt.setString(1, product.getName());
+                pstmt.setDouble(2, product.getBuyPrice());
+                pstmt.setDouble(3, product.getSellPrice());
+                pstmt.setInt(4, product.getQuantity());
+                pstmt.setInt(5, product.getCriticalLevel());
+                pstmt.setString(6, normalizeBarcode(product.getBarcode()));
+                pstmt.setString(7, product.getSupplier());
+
+                pstmt.executeUpdate();
+                product.setId(conn.lastInsertId());
+            }
+            barcodeIndex().put(product.getId(), normalizeBarcode(product.getBarcode()));
+            fireChange(DataChangeEvent.productInserted(product));
+        });
+    }
+
+    /**
+     * Ürünleri tek işlemde, toplu (batch) olarak ekler; ID'ler ürünlere atanır.
+     * Barkod çakışması ya da başka bir hata olursa hiçbir ürün eklenmez.
+     * Dinleyicilere ürün başına değil, tek bir PRODUCTS_RELOADED olayı gönderilir.
+     */
+    public void addProducts(List<Product> products) throws SQLException {
+        metrics.run("addProducts", products.size(), () -> {
+            if (products.isEmpty()) {
+                return;
+            }
+            String sql = """
+                INSERT INTO products (name, buy_price, sell_price, quantity, critical_level, barcode, supplier)
+                VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+            try (PooledConnection conn = pool.acquire()) {
+                Connection connection = conn.connection();
+                PreparedStatement pstmt = conn.prepare(sql);
+
+                connection.setAutoCommit(false);
+                try {
+                    for (Product product : products) {
+                        pstmt.setString(1, product.getName());
+                        pstmt.setDouble(2, product.getBuyPrice());
+                        pstmt.setDouble(3, product.getSellPrice());
+                        pstmt.setInt(4, product.getQuantity());
+                        pstmt.setInt(5, product.getCriticalLevel());
+                        pstmt.setString(6, normalizeBarcode(product.getBarcode()));
+                        pstmt.setString(7, product.getSupplier());
+                        pstmt.addBatch();
+                    }
+                    // Satır başına tetikleyiciyle dizinlemek eklemenin çoğu zamanını alır; tetikleyici
+                    // bu işlem boyunca kaldırılır ve arama dizini tek sorguyla doldurulur.
+                    // DDL de işleme dahildir, hata olursa tetikleyici geri gelir
+                    try (Statement statement = connection.createStatement()) {
+                        statement.execute("DROP TRIGGER IF EXISTS products_fts_insert");
+                    }
+                    pstmt.executeBatch();
+                    // Yazma kilidi bu işlemde olduğundan ID'ler ardışık atanır
+                    int firstId = conn.lastInsertId() - products.size() + 1;
+                    try (PreparedStatement fts = connection.prepareStatement("""
+                            INSERT INTO products_fts (rowid, name, supplier)
+                            SELECT id, name, supplier FROM products WHERE id >= ?
+                        """);
+                         Statement statement = connection.createStatement()) {
+                        fts.setInt(1, firstId);
+                        fts.executeUpdate();
+                        statement.execute(SchemaMigrator.FTS_INSERT_TRIGGER);
+                    }
+                    connection.commit();
+
+                    for (int i = 0; i < products.size(); i++) {
+                        products.get(i).setId(firstId + i);
+                    }
+                } catch (SQLException e) {
+                    pstmt.clearBatch();
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(true);
+                }
+            }
+            for (Product product : products) {
+                barcodeIndex().put(product.getId(), normalizeBarcode(product.getBarcode()));
+            }
+            fireChange(DataChangeEvent.productsReloaded());
+        });
+    }
+
+    public void updateProduct(Product product) throws SQLException {
+        metrics.run("updateProduct", 1, () -> {
+            // İyimser kilitleme: ürün okunduktan sonra başka biri değiştirdiyse güncelleme yapılmaz
+            String sql = """
+                UPDATE products 
+                SET name = ?, buy_price = ?, sell_price = ?, quantity = ?, 
+                    critical_level = ?, barcode = ?, supplier = ?, version = version + 1
+                WHERE id = ? AND version = ?
+            """;
+
+            try (PooledConnection conn = pool.acquire()) {
+                // Barkod kontrolü (kendi ID'si hariç)
+                if (isBarcodeExistsExcept(product.getBarcode(), product.getId())) {
+                    throw new SQLException("Bu barkod başka bir ürün tarafından kullanılıyor: " + product.getBarcode());
+                }
+
+                PreparedStatement pstmt = conn.prepare(sql);
+                pstmt.setString(1, product.getName());
+                pstmt.setDouble(2, product.getBuyPrice());
+                pstmt.setDouble(3, product.getSellPrice());
+                pstmt.setInt(4, product.getQuantity());
+                pstmt.setInt(5, product.getCriticalLevel());
+                pstmt.setString(6, normalizeBarcode(product.getBarcode()));
+                pstmt.setString(7, product.getSupplier());
+                pstmt.setInt(8, product.getId());
+                pstmt.setInt(9, product.getVersion());
+
+                if (pstmt.executeUpdate() == 0) {
+                    throw new SQLException("Ürün siz düzenlerken başka bir işlem tarafından değiştirildi "
+                        + "ya da silindi. Lütfen listeyi yenileyip tekrar deneyin.");
+                }
+                product.setVersion(product.getVersion() + 1);
+            }
+            barcodeIndex().put(product.getId(), normalizeBarcode(product.getBarcode()));
+            fireChange(DataChangeEvent.productUpdated(product));
+        });
+    }
+
     public void deleteProduct(int id) throws SQLException {
-        String sql = "DELETE FROM products WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, id);
-            pstmt.executeUpdate();
-        }
+        metrics.run("deleteProduct", 1, () -> {
+            String sql = "DELETE FROM products WHERE id = ?";
+            try (PooledConnection conn = pool.acquire()) {
+                PreparedStatement pstmt = conn.prepare(sql);
+                pstmt.setInt(1, id);
+                if (pstmt.executeUpdate() == 0) {
+                    return;
+                }
+            }
+            barcodeIndex().remove(id);
+            fireChange(DataChangeEvent.productDeleted(id));
+        });
     }
 
     public Product getProduct(int id) throws SQLException {
-        String sql = "SELECT * FROM products WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, id);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return extractProductFromResultSet(rs);
+        return metrics.call("getProduct", product -> product == null ? 0 : 1, () -> {
+            String sql = "SELECT * FROM products WHERE id = ?";
+            try (PooledConnection conn = readPool.acquire()) {
+                PreparedStatement pstmt = conn.prepare(sql);
+                pstmt.setInt(1, id);
+
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        return extractProductFromResultSet(rs);
+                    }
+                }
             }
-        }
-        return null;
+            return null;
+        });
     }
 
     public List<Product> getAllProducts() throws SQLException {
-        List<Product> products = new ArrayList<>();
-        String sql = "SELECT * FROM products";
-        
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                products.add(extractProductFromResultSet(rs));
+        return metrics.call("getAllProducts", List::size, () -> {
+            List<Product> products = new ArrayList<>();
+            String sql = "SELECT * FROM products";
+
+            try (PooledConnection conn = readPool.acquire();
+                 ResultSet rs = conn.prepare(sql).executeQuery()) {
+
+                while (rs.next()) {
+                    products.add(extractProductFromResultSet(rs));
+                }
             }
-        }
-        return products;
+            return products;
+        });
+    }
+
+    // Toplu içe aktarmanın tek seferde okuduğu barkod kümesi; satır başına sorgu yapılmaz
+    public Set<String> getAllBarcodes() throws SQLException {
+        return metrics.call("getAllBarcodes", Set::size, () -> {
+            Set<String> barcodes = new HashSet<>();
+            String sql = "SELECT barcode FROM products WHERE barcode IS NOT NULL";
+
+            try (PooledConnection conn = readPool.acquire();
+                 ResultSet rs = conn.prepare(sql).executeQuery()) {
+
+                while (rs.next()) {
+                    barcodes.add(rs.getString(1));
+                }
+            }
+            return barcodes;
+        });
+    }
+
+    // Anahtar kümesi (keyset) sayfalama: afterId'den büyük ilk "limit" ürün
+    public List<Product> getProductsPage(int afterId, int limit) throws SQLException {
+        return metrics.call("getProductsPage", List::size, () -> {
+            List<Product> products = new ArrayList<>(limit);
+            String sql = "SELECT * FROM products WHERE id > ? ORDER BY id LIMIT ?";
+
+            try (PooledConnection conn = readPool.acquire()) {
+                PreparedStatement pstmt = conn.prepare(sql);
+                pstmt.setInt(1, afterId);
+                pstmt.setInt(2, limit);
+
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        products.add(extractProductFromResultSet(rs));
+                    }
+                }
+            }
+            return products;
+        });
+    }
+
+    // Her sayfanın başlangıç anahtarı (bir önceki sayfanın son ID'si); ilk sayfa için 0.
+    // Yalnızca birincil anahtar okunur, satırların kendisi yüklenmez.
+    public int[] getProductPageKeys(int pageSize) throws SQLException {
+        return metrics.call("getProductPageKeys", keys -> keys.length, () -> {
+            String sql = """
+                SELECT id FROM (
+                    SELECT id, ROW_NUMBER() OVER (ORDER BY id) AS rn FROM products
+                ) WHERE rn % ? = 0 ORDER BY id
+            """;
+
+            List<Integer> keys = new ArrayList<>();
+            keys.add(0);
+            try (PooledConnection conn = readPool.acquire()) {
+                PreparedStatement pstmt = conn.prepare(sql);
+                pstmt.setInt(1, pageSize);
+
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        keys.add(rs.getInt(1));
+                    }
+                }
+            }
+            return keys.stream().mapToInt(Integer::intValue).toArray();
+        });
+    }
+
+    public int getProductCount() throws SQLException {
+        return metrics.call("getProductCount", () -> {
+            String sql = "SELECT COUNT(*) FROM products";
+            try (PooledConnection conn = readPool.acquire();
+                 ResultSet rs = conn.prepare(sql).executeQuery()) {
+
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+            return 0;
+        });
     }
 
     public List<Product> getLowStockProducts() throws SQLException {
-        List<Product> products = new ArrayList<>();
-        String sql = "SELECT * FROM products WHERE quantity <= critical_level";
-        
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                products.add(extractProductFromResultSet(rs));
+        return metrics.call("getLowStockProducts", List::size, () -> {
+            List<Product> products = new ArrayList<>();
+            String sql = "SELECT * FROM products WHERE quantity <= critical_level";
+
+            try (PooledConnection conn = readPool.acquire();
+                 ResultSet rs = conn.prepare(sql).executeQuery()) {
+
+                while (rs.next()) {
+                    products.add(extractProductFromResultSet(rs));
+                }
+            }
+            return products;
+        });
+    }
+
+    /**
+     * Ürün adı ve tedarikçide yazarken arama. Her kelime önek olarak aranır ve
+     * tüm kelimeler eşleşmelidir; büyük/küçük harf ve Türkçe aksanlar yok sayılır.
+     * Sonuçlar en iyi eşleşmeden başlayarak en fazla limit kadar döner.
+     */
+    public List<Product> searchProducts(String query, int limit) throws SQLException {
+        return metrics.call("searchProducts", List::size, () -> {
+            List<Product> products = new ArrayList<>();
+            String match = toFtsPrefixQuery(query);
+            if (match.isEmpty()) {
+                return products;
+            }
+            // Kısa önekler yüz binlerce ürünle eşleşebilir; hepsini puanlamak yerine
+            // ilk SEARCH_RANK_WINDOW adayı puanlanır, böylece süre eşleşme sayısından bağımsız kalır
+            String sql = """
+                SELECT p.* FROM (
+                    SELECT rowid, rank FROM products_fts
+                    WHERE products_fts MATCH ?
+                    LIMIT ?
+                ) f
+                JOIN products p ON p.id = f.rowid
+                ORDER BY f.rank
+                LIMIT ?
+            """;
+
+            try (PooledConnection conn = readPool.acquire()) {
+                PreparedStatement pstmt = conn.prepare(sql);
+                pstmt.setString(1, match);
+                pstmt.setInt(2, Math.max(limit, SEARCH_RANK_WINDOW));
+                pstmt.setInt(3, limit);
+
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        products.add(extractProductFromResultSet(rs));
+                    }
+                }
+            }
+            return products;
+        });
+    }
+
+    // Kullanıcı girdisini FTS5 sorgusuna çevirir: her kelime tırnaklanır (operatör
+    // olarak yorumlanmasın) ve önek araması yapılır, ör. kol sü -> "kol"* "sü"*
+    private static String toFtsPrefixQuery(String query) {
+        if (query == null) {
+            return "";
+        }
+        StringBuilder match = new StringBuilder();
+        for (String term : query.trim().split("\\s+")) {
+            if (term.isEmpty()) {
+                continue;
             }
+            if (match.length() > 0) {
+                match.append(' ');
+            }
+            match.append('"').append(term.replace("\"", "\"\"")).append("\"*");
         }
-        return products;
+        return match.toString();
+    }
+
+    /**
+     * Stok değerinin (alış fiyatı x miktar) dağılımı: en değerli topN ürün ya da
+     * tedarikçi ayrı dilim, kalanlar tek bir "Diğer" dilimi olarak tek sorguda
+     * hesaplanır. Değeri sıfır olanlar dahil edilmez.
+     */
+    public List<StockShare> getStockValueDistribution(int topN, boolean bySupplier) throws SQLException {
+        return metrics.call("getStockValueDistribution", List::size, () -> {
+            String totals = bySupplier
+                ? """
+                    SELECT COALESCE(NULLIF(supplier, ''), 'Tedarikçi belirtilmemiş') AS label,
+                           SUM(buy_price * quantity) AS value, COUNT(*) AS items
+                    FROM products
+                    GROUP BY 1
+                  """
+                : """
+                    SELECT name AS label, buy_price * quantity AS value, 1 AS items
+                    FROM products
+                  """;
+            // İlk N için tam sıralama yerine LIMIT'li sıralama (yığın) kullanılır;
+            // "Diğer" dilimi genel toplamdan ilk N'nin toplamı çıkarılarak bulunur
+            String sql = """
+                WITH totals AS (%s),
+                top AS (
+                    SELECT label, value, items FROM totals
+                    WHERE value > 0
+                    ORDER BY value DESC
+                    LIMIT ?
+                )
+                SELECT label, value, items, 0 AS other FROM top
+                UNION ALL
+                SELECT NULL, SUM(value) - (SELECT SUM(value) FROM top),
+                       SUM(items) - (SELECT SUM(items) FROM top), 1
+                FROM totals WHERE value > 0
+                HAVING SUM(items) > (SELECT SUM(items) FROM top)
+                ORDER BY other, value DESC
+            """.formatted(totals);
+
+            List<StockShare> shares = new ArrayList<>();
+            try (PooledConnection conn = readPool.acquire()) {
+                PreparedStatement pstmt = conn.prepare(sql);
+                pstmt.setInt(1, topN);
+
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        boolean other = rs.getBoolean(4);
+                        shares.add(new StockShare(other ? "Diğer" : rs.getString(1),
+                            rs.getDouble(2), rs.getInt(3), other));
+                    }
+                }
+            }
+            return shares;
+        });
+    }
+
+    // Tedarikçi bazında ürün sayısı, stok değeri ve aralıktaki satışlar
+    // (satışlar günlük özet tablosundan, gün çözünürlüğünde)
+    public List<SupplierSummary> getSupplierSummaries(Date startDate, Date endDate) throws SQLException {
+        return metrics.call("getSupplierSummaries", List::size, () -> {
+            List<SupplierSummary> summaries = new ArrayList<>();
+            String sql = """
+                SELECT COALESCE(NULLIF(p.supplier, ''), 'Tedarikçi belirtilmemiş'),
+                       COUNT(*), SUM(p.buy_price * p.quantity),
+                       COALESCE(SUM(s.quantity), 0), COALESCE(SUM(s.total_amount), 0), COALESCE(SUM(s.profit), 0)
+                FROM products p
+                LEFT JOIN (
+                    SELECT product_id, SUM(quantity) AS quantity, SUM(total_amount) AS total_amount,
+                           SUM(profit) AS profit
+                    FROM sales_daily_rollup
+                    WHERE day BETWEEN date(? / 1000, 'unixepoch', 'localtime')
+                                  AND date(? / 1000, 'unixepoch', 'localtime')
+                    GROUP BY product_id
+                ) s ON s.product_id = p.id
+                GROUP BY 1
+                ORDER BY 1
+            """;
+
+            try (PooledConnection conn = readPool.acquire()) {
+                PreparedStatement pstmt = conn.prepare(sql);
+                pstmt.setLong(1, startDate.getTime());
+                pstmt.setLong(2, endDate.getTime());
+
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        summaries.add(new SupplierSummary(
+                            rs.getString(1),
+                            rs.getInt(2),
+                            rs.getDouble(3),
+                            rs.getInt(4),
+                            rs.getDouble(5),
+                            rs.getDouble(6)
+                        ));
+                    }
+                }
+            }
+            return summaries;
+        });
     }
 
     // Satış işlemleri
     public void addSale(Sale sale) throws SQLException {
-        String sql = """
+        metrics.run("addSale", 1, () -> {
+            addSales(List.of(sale));
+        });
+    }
+
+    // Satış satırları ve stok düşümleri tek işlemde, toplu (batch) olarak yazılır.
+    // Stok yalnızca yeterliyse düşülür; herhangi bir satış için stok yetmezse
+    // InsufficientStockException fırlatılır ve işlemin tamamı geri alınır.
+    //
+    // Günlük modunda satışlar günlüğe eklenip hemen döner; stok kontrolü ve ID
+    // ataması boşaltma sırasında yapılır, stoğu yetmeyen satışlar reddedilip loglanır.
+    public void addSales(List<Sale> sales) throws SQLException {
+        metrics.run("addSales", sales.size(), () -> {
+            if (sales.isEmpty()) {
+                return;
+            }
+
+            if (journal != null) {
+                if (closed) {
+                    throw new SQLException("Veritabanı bağlantısı kapatılmış.");
+                }
+                try {
+                    journal.append(sales);
+                } catch (SaleJournal.JournalFullException e) {
+                    // Günlük doluysa önce boşaltılır, yine sığmıyorsa doğrudan yazılır
+                    journalFlusher.drain();
+                    try {
+                        journal.append(sales);
+                    } catch (SaleJournal.JournalFullException stillFull) {
+                        writeSalesLocked(sales, null);
+                        return;
+                    }
+                }
+                journalFlusher.wakeUp();
+                return;
+            }
+            writeSalesLocked(sales, null);
+        });
+    }
+
+    private void writeSalesLocked(List<Sale> sales, JournalPosition position) throws SQLException {
+        int[] locked = stockLocks.lockAll(sales.size(), i -> sales.get(i).getProductId());
+        try {
+            writeSales(sales, position);
+        } finally {
+            stockLocks.unlockAll(locked);
+        }
+        fireStockChanges(sales);
+    }
+
+    // Boşaltıcıdan çağrılır: günlükten okunan satışları ve günlük konumunu
+    // aynı işlemde yazar, ardından günlükte boşaltıldı olarak işaretler
+    void flushJournalBatch(SaleJournal journal, SaleJournal.Batch batch) throws SQLException {
+        List<Sale> sales = batch.sales;
+        long end = batch.endOffsets.get(sales.size() - 1);
+        try {
+            writeSalesLocked(sales, new JournalPosition(batch.generation, end));
+        } catch (InsufficientStockException e) {
+            // Toplu yazım geri alındı; satışlar tek tek denenir, stoğu yetmeyenler atlanır
+            for (int i = 0; i < sales.size(); i++) {
+                Sale sale = sales.get(i);
+                JournalPosition position = new JournalPosition(batch.generation, batch.endOffsets.get(i));
+                try {
+                    writeSalesLocked(List.of(sale), position);
+                } catch (InsufficientStockException rejected) {
+                    System.err.println("Günlükteki satış reddedildi: " + rejected.getMessage());
+                    saveJournalPosition(position);
+                }
+                journal.markFlushed(batch.generation, position.offset);
+            }
+            return;
+        }
+        journal.markFlushed(batch.generation, end);
+    }
+
+    private void openSaleJournal() throws SQLException {
+        if (!Boolean.parseBoolean(profile.getProperty("journal.enabled", "false"))) {
+            return;
+        }
+        int generation = 0;
+        long offset = SaleJournal.HEADER_SIZE;
+        try (PooledConnection conn = pool.acquire()) {
+            PreparedStatement pstmt = conn.prepare(
+                "SELECT generation, flushed_offset FROM sale_journal_state WHERE id = 1");
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    generation = rs.getInt("generation");
+                    offset = rs.getLong("flushed_offset");
+                }
+            }
+        }
+
+        try {
+            journal = new SaleJournal(Path.of(profile.getProperty("journal.path", "sales.journal")),
+                profile.getInt("journal.size.mb", 64) * 1024L * 1024,
+                Boolean.parseBoolean(profile.getProperty("journal.force", "false")));
+        } catch (IOException e) {
+            throw new SQLException("Satış günlüğü açılamadı: " + e.getMessage(), e);
+        }
+        // Önceki çalışmadan kalan (boşaltılmamış) kayıtlar ilk turda yazılır
+        journal.recover(generation, offset);
+        journalFlusher = new SaleJournalFlusher(journal, this,
+            profile.getInt("journal.flush.interval.ms", 200),
+            profile.getInt("journal.flush.batch", 5000));
+        journalFlusher.start();
+    }
+
+    // Günlükte bekleyen satışları hemen veritabanına yazar (günlük kapalıysa bir şey yapmaz)
+    public void flushSaleJournal() throws SQLException {
+        metrics.run("flushSaleJournal", 0, () -> {
+            if (journalFlusher != null) {
+                journalFlusher.drain();
+            }
+        });
+    }
+
+    private void saveJournalPosition(JournalPosition position) throws SQLException {
+        try (PooledConnection conn = pool.acquire()) {
+            bindJournalPosition(conn.prepare(JOURNAL_STATE_SQL), position).executeUpdate();
+        }
+    }
+
+    private static PreparedStatement bindJournalPosition(PreparedStatement pstmt, JournalPosition position)
+            throws SQLException {
+        pstmt.setInt(1, position.generation);
+        pstmt.setLong(2, position.offset);
+        return pstmt;
+    }
+
+    private static final String JOURNAL_STATE_SQL = """
+        INSERT INTO sale_journal_state (id, generation, flushed_offset) VALUES (1, ?, ?)
+        ON CONFLICT (id) DO UPDATE SET
+            generation = excluded.generation,
+            flushed_offset = excluded.flushed_offset
+    """;
+
+    // Günlükte satışların yazıldığı son konum
+    private static final class JournalPosition {
+        final int generation;
+        final long offset;
+
+        JournalPosition(int generation, long offset) {
+            this.generation = generation;
+            this.offset = offset;
+        }
+    }
+
+    private void writeSales(List<Sale> sales, JournalPosition position) throws SQLException {
+        String insertSql = """
             INSERT INTO sales (product_id, product_name, quantity, unit_price, 
                              total_amount, sale_date, profit)
             VALUES (?, ?, ?, ?, ?, ?, ?)
         """;
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            pstmt.setInt(1, sale.getProductId());
-            pstmt.setString(2, sale.getProductName());
-            pstmt.setInt(3, sale.getQuantity());
-            pstmt.setDouble(4, sale.getUnitPrice());
-            pstmt.setDouble(5, sale.getTotalAmount());
-            pstmt.setTimestamp(6, new Timestamp(sale.getSaleDate().getTime()));
-            pstmt.setDouble(7, sale.getProfit());
-            
-            pstmt.executeUpdate();
-            
-            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    sale.setId(generatedKeys.getInt(1));
-                }
-            }
-            
-            // Stok miktarını güncelle
-            updateProductQuantity(sale.getProductId(), sale.getQuantity());
+        // Koşullu düşüm: stok yetmiyorsa satır etkilenmez
+        String stockSql = """
+            UPDATE products SET quantity = quantity - ?, version = version + 1
+            WHERE id = ? AND quantity >= ?
+        """;
+        // Günlük özet satışla aynı işlemde güncellenir
+        String rollupSql = """
+            INSERT INTO sales_daily_rollup (day, product_id, quantity, total_amount, profit, sale_count)
+            VALUES (date(? / 1000, 'unixepoch', 'localtime'), ?, ?, ?, ?, 1)
+            ON CONFLICT (day, product_id) DO UPDATE SET
+                quantity = quantity + excluded.quantity,
+                total_amount = total_amount + excluded.total_amount,
+                profit = profit + excluded.profit,
+                sale_count = sale_count + 1
+        """;
+
+        try (PooledConnection conn = pool.acquire()) {
+            Connection connection = conn.connection();
+            PreparedStatement insert = conn.prepare(insertSql);
+            PreparedStatement stock = conn.prepare(stockSql);
+            PreparedStatement rollup = conn.prepare(rollupSql);
+
+            connection.setAutoCommit(false);
+            try {
+                for (Sale sale : sales) {
+                    insert.setInt(1, sale.getProductId());
+                    insert.setString(2, sale.getProductName());
+                    insert.setInt(3, sale.getQuantity());
+                    insert.setDouble(4, sale.getUnitPrice());
+                    insert.setDouble(5, sale.getTotalAmount());
+                    insert.setTimestamp(6, new Timestamp(sale.getSaleDate().getTime()));
+                    insert.setDouble(7, sale.getProfit());
+                    insert.addBatch();
+
+                    // Stok miktarını güncelle
+                    stock.setInt(1, sale.getQuantity());
+                    stock.setInt(2, sale.getProductId());
+                    stock.setInt(3, sale.getQuantity());
+                    stock.addBatch();
+
+                    rollup.setLong(1, sale.getSaleDate().getTime());
+                    rollup.setInt(2, sale.getProductId());
+                    rollup.setInt(3, sale.getQuantity());
+                    rollup.setDouble(4, sale.getTotalAmount());
+                    rollup.setDouble(5, sale.getProfit());
+                    rollup.addBatch();
+                }
+                int[] stockUpdates = stock.executeBatch();
+                for (int i = 0; i < stockUpdates.length; i++) {
+                    if (stockUpdates[i] == 0) {
+                        Sale sale = sales.get(i);
+                        throw new InsufficientStockException(sale.getProductId(), sale.getQuantity());
+                    }
+                }
+                insert.executeBatch();
+                // Yazma kilidi bu işlemde olduğundan ID'ler ardışık atanır
+                int firstId = conn.lastInsertId() - sales.size() + 1;
+                rollup.executeBatch();
+                if (position != null) {
+                    // Günlük konumu satışlarla aynı işlemde: kayıt ne kaybolur ne iki kez yazılır
+                    bindJournalPosition(conn.prepare(JOURNAL_STATE_SQL), position).executeUpdate();
+                }
+                connection.commit();
+
+                for (int i = 0; i < sales.size(); i++) {
+                    sales.get(i).setId(firstId + i);
+                }
+            } catch (SQLException e) {
+                insert.clearBatch();
+                stock.clearBatch();
+                rollup.clearBatch();
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
         }
     }
 
-    private void updateProductQuantity(int productId, int soldQuantity) throws SQLException {
-        String sql = "UPDATE products SET quantity = quantity - ? WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, soldQuantity);
-            pstmt.setInt(2, productId);
-            pstmt.executeUpdate();
+    // Toplu satışta aynı ürün için tek olay yayınlanır
+    private void fireStockChanges(List<Sale> sales) {
+        if (changeListeners.isEmpty()) {
+            return;
         }
+        // Ürün ID -> {miktar değişimi, satış sayısı (sürüm artışı)}
+        Map<Integer, int[]> deltas = new LinkedHashMap<>();
+        for (Sale sale : sales) {
+            int[] delta = deltas.computeIfAbsent(sale.getProductId(), id -> new int[2]);
+            delta[0] -= sale.getQuantity();
+            delta[1]++;
+        }
+        deltas.forEach((productId, delta) ->
+            fireChange(DataChangeEvent.stockChanged(productId, delta[0], delta[1])));
     }
 
     public List<Sale> getSalesByDateRange(Date startDate, Date endDate) throws SQLException {
-        List<Sale> sales = new ArrayList<>();
-        String sql = "SELECT * FROM sales WHERE sale_date BETWEEN ? AND ?";
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setTimestamp(1, new Timestamp(startDate.getTime()));
-            pstmt.setTimestamp(2, new Timestamp(endDate.getTime()));
-            
+        return metrics.call("getSalesByDateRange", List::size, () -> {
+            List<Sale> sales = new ArrayList<>();
+            forEachSaleInRange(startDate, endDate, sales::add);
+            return sales;
+        });
+    }
+
+    // Satışları listeye almadan imleç üzerinden sırayla işler; bellek kullanımı
+    // satır sayısından bağımsızdır (büyük dışa aktarımlar için)
+    public void forEachSaleInRange(Date startDate, Date endDate, Consumer<Sale> action) throws SQLException {
+        metrics.call("forEachSaleInRange", Long::longValue, () -> {
+            String sql = "SELECT * FROM %s WHERE sale_date BETWEEN ? AND ? AND %s";
+
+            // Bölümler zaman sırasıyla gelir; yalnızca aralıkla kesişen arşivler okunur
+            try (PooledConnection conn = readPool.acquire()) {
+                long[] rows = {0};
+                salesArchive.readRange(conn, startDate.getTime(), endDate.getTime(),
+                    segment -> segment.execute(conn, segment.union(sql) + " ORDER BY sale_date", pstmt -> {
+                        try (ResultSet rs = pstmt.executeQuery()) {
+                            while (rs.next()) {
+                                action.accept(extractSaleFromResultSet(rs));
+                                rows[0]++;
+                            }
+                        }
+                    }, segment.from, segment.to));
+                return rows[0];
+            }
+        });
+    }
+
+    // ID'si afterId'den büyük satışları ID sırasıyla imleç üzerinden işler (artımlı dışa aktarım).
+    // Yazarlar sıralı çalıştığından okuma sırasında henüz işlenmemiş bir satışın ID'si
+    // okunanların hepsinden büyüktür; son okunan ID'den devam eden çalıştırma onu kaçırmaz
+    public void forEachSaleAfter(long afterId, Consumer<Sale> action) throws SQLException {
+        metrics.call("forEachSaleAfter", Long::longValue, () -> {
+            String sql = "SELECT * FROM %s WHERE id > ? AND id <= ? AND %s";
+
+            try (PooledConnection conn = readPool.acquire()) {
+                long[] rows = {0};
+                salesArchive.readAfterId(conn, afterId,
+                    segment -> segment.execute(conn, segment.union(sql) + " ORDER BY id", pstmt -> {
+                        try (ResultSet rs = pstmt.executeQuery()) {
+                            while (rs.next()) {
+                                action.accept(extractSaleFromResultSet(rs));
+                                rows[0]++;
+                            }
+                        }
+                    }, segment.from, segment.to));
+                return rows[0];
+            }
+        });
+    }
+
+    public long countSalesAfter(long afterId) throws SQLException {
+        return metrics.call("countSalesAfter", () -> {
+            String sql = "SELECT COUNT(*) FROM %s WHERE id > ? AND id <= ? AND %s";
+
+            try (PooledConnection conn = readPool.acquire()) {
+                long[] count = {0};
+                salesArchive.readAfterId(conn, afterId,
+                    segment -> count[0] += sumCounts(conn, segment, sql));
+                return count[0];
+            }
+        });
+    }
+
+    public long countSalesInRange(Date startDate, Date endDate) throws SQLException {
+        return metrics.call("countSalesInRange", () -> {
+            String sql = "SELECT COUNT(*) FROM %s WHERE sale_date BETWEEN ? AND ? AND %s";
+
+            try (PooledConnection conn = readPool.acquire()) {
+                long[] count = {0};
+                salesArchive.readRange(conn, startDate.getTime(), endDate.getTime(),
+                    segment -> count[0] += sumCounts(conn, segment, sql));
+                return count[0];
+            }
+        });
+    }
+
+    // Bölümün her kolu için bir COUNT(*) satırı döner; toplamı alınır
+    private static long sumCounts(PooledConnection conn, SalesArchive.Segment segment, String sql)
+            throws SQLException {
+        long[] count = {0};
+        segment.execute(conn, segment.union(sql), pstmt -> {
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    sales.add(extractSaleFromResultSet(rs));
+                    count[0] += rs.getLong(1);
                 }
             }
-        }
-        return sales;
+        }, segment.from, segment.to);
+        return count[0];
+    }
+
+    /**
+     * Grafik için zaman serisi. Çözünürlük aralığın uzunluğuna göre seçilir:
+     * 2 güne kadar 5 dakikalık, 62 güne kadar saatlik kovalar satış tablosundan;
+     * daha uzun aralıklar günlük özet tablosundan okunur. Böylece nokta sayısı
+     * aralıktan bağımsız olarak birkaç bin civarında kalır.
+     */
+    public SalesSeries getSalesSeries(Date startDate, Date endDate) throws SQLException {
+        return metrics.call("getSalesSeries", SalesSeries::size, () -> {
+            long range = endDate.getTime() - startDate.getTime();
+            if (range > 62 * DAY_MS) {
+                List<DailySales> days = getDailySales(startDate, endDate);
+                long[] times = new long[days.size()];
+                double[] amounts = new double[days.size()];
+                ZoneId zone = ZoneId.systemDefault();
+                for (int i = 0; i < days.size(); i++) {
+                    times[i] = days.get(i).getDay().atStartOfDay(zone).toInstant().toEpochMilli();
+                    amounts[i] = days.get(i).getTotalAmount();
+                }
+                return new SalesSeries(times, amounts, DAY_MS);
+            }
+
+            long bucket = range > 2 * DAY_MS ? HOUR_MS : FIVE_MINUTES_MS;
+            String sql = "SELECT (sale_date / ?) * ? AS bucket, total_amount FROM %s WHERE sale_date BETWEEN ? AND ? AND %s";
+
+            try (PooledConnection conn = readPool.acquire()) {
+                int[] size = {0};
+                long[][] times = {new long[256]};
+                double[][] amounts = {new double[256]};
+                salesArchive.readRange(conn, startDate.getTime(), endDate.getTime(), segment -> {
+                    String seriesSql = "SELECT bucket, SUM(total_amount) FROM (" + segment.union(sql) + ") GROUP BY 1 ORDER BY 1";
+                    segment.execute(conn, seriesSql, pstmt -> {
+                        try (ResultSet rs = pstmt.executeQuery()) {
+                            while (rs.next()) {
+                                long time = rs.getLong(1);
+                                // Ay sınırına denk gelen kova iki bölümde de bulunabilir
+                                if (size[0] > 0 && times[0][size[0] - 1] == time) {
+                                    amounts[0][size[0] - 1] += rs.getDouble(2);
+                                    continue;
+                                }
+                                if (size[0] == times[0].length) {
+                                    times[0] = Arrays.copyOf(times[0], size[0] * 2);
+                                    amounts[0] = Arrays.copyOf(amounts[0], size[0] * 2);
+                                }
+                                times[0][size[0]] = time;
+                                amounts[0][size[0]] = rs.getDouble(2);
+                                size[0]++;
+                            }
+                        }
+                    }, bucket, bucket, segment.from, segment.to);
+                });
+                return new SalesSeries(Arrays.copyOf(times[0], size[0]), Arrays.copyOf(amounts[0], size[0]), bucket);
+            }
+        });
+    }
+
+    // İlk satışın tarihi; hiç satış yoksa null
+    public Date getFirstSaleDate() throws SQLException {
+        return metrics.call("getFirstSaleDate", () -> {
+            try (PooledConnection conn = readPool.acquire()) {
+                Long first = salesArchive.firstArchivedSaleDate(conn);
+                try (ResultSet rs = conn.prepare("SELECT MIN(sale_date) FROM sales").executeQuery()) {
+                    if (rs.next()) {
+                        long hot = rs.getLong(1);
+                        if (!rs.wasNull() && (first == null || hot < first)) {
+                            first = hot;
+                        }
+                    }
+                }
+                return first == null ? null : new Date(first);
+            }
+        });
+    }
+
+    // Tarih aralığındaki (her iki gün dahil) günlük toplamlar, özet tablosundan okunur
+    public List<DailySales> getDailySales(Date startDate, Date endDate) throws SQLException {
+        return metrics.call("getDailySales", List::size, () -> {
+            List<DailySales> days = new ArrayList<>();
+            String sql = """
+                SELECT day, SUM(quantity), SUM(total_amount), SUM(profit), SUM(sale_count)
+                FROM sales_daily_rollup
+                WHERE day BETWEEN date(? / 1000, 'unixepoch', 'localtime')
+                              AND date(? / 1000, 'unixepoch', 'localtime')
+                GROUP BY day
+                ORDER BY day
+            """;
+
+            try (PooledConnection conn = readPool.acquire()) {
+                PreparedStatement pstmt = conn.prepare(sql);
+                pstmt.setLong(1, startDate.getTime());
+                pstmt.setLong(2, endDate.getTime());
+
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        days.add(new DailySales(
+                            LocalDate.parse(rs.getString(1)),
+                            rs.getInt(2),
+                            rs.getDouble(3),
+                            rs.getDouble(4),
+                            rs.getInt(5)
+                        ));
+                    }
+                }
+            }
+            return days;
+        });
+    }
+
+    // Özet tablosunu tüm satış geçmişinden (arşivler dahil) yeniden oluşturur. Her bölüm
+    // ay sınırlarında başlayıp bittiğinden bölümlerin günleri çakışmaz; önce bölümün
+    // günleri silinir, sonra yeniden hesaplanır. İşlem yazma kilidiyle başlar; aynı anda
+    // yazılan satışların özet satırı silme ile ekleme arasına giremez
+    public void rebuildSalesRollup() throws SQLException {
+        metrics.call("rebuildSalesRollup", Long::longValue, () -> {
+            String sql = """
+                INSERT INTO sales_daily_rollup (day, product_id, quantity, total_amount, profit, sale_count)
+                SELECT date(sale_date / 1000, 'unixepoch', 'localtime'), product_id,
+                       SUM(quantity), SUM(total_amount), SUM(profit), COUNT(*)
+                FROM (%s)
+                GROUP BY 1, 2
+            """;
+            String arm = "SELECT sale_date, product_id, quantity, total_amount, profit "
+                + "FROM %s WHERE sale_date BETWEEN ? AND ? AND %s";
+
+            try (PooledConnection conn = pool.acquire()) {
+                long[] rows = {0};
+                salesArchive.updateRange(conn, SalesArchive.MIN_DATE, SalesArchive.MAX_DATE, segment -> {
+                    PreparedStatement delete = conn.prepare("""
+                        DELETE FROM sales_daily_rollup
+                        WHERE day BETWEEN date(? / 1000, 'unixepoch', 'localtime')
+                                      AND date(? / 1000, 'unixepoch', 'localtime')
+                    """);
+                    delete.setLong(1, segment.from);
+                    delete.setLong(2, segment.to);
+                    delete.executeUpdate();
+                    segment.execute(conn, String.format(sql, segment.union(arm)),
+                        insert -> rows[0] += insert.executeUpdate(), segment.from, segment.to);
+                });
+                return rows[0];
+            }
+        });
+    }
+
+    /**
+     * Kapanmış ayların satışlarını aylık arşiv dosyalarına taşır (bkz. SalesArchive)
+     * ve taşınan satır sayısını döndürür. sales.archive.enabled açıksa arka planda
+     * sales.archive.check.interval.min aralığıyla kendiliğinden çalışır.
+     */
+    public long archiveSales() throws SQLException {
+        return metrics.call("archiveSales", Long::longValue, () -> {
+            synchronized (salesArchive) {
+                try (PooledConnection conn = pool.acquire()) {
+                    return salesArchive.archiveClosedMonths(conn);
+                }
+            }
+        });
     }
 
     public double getTotalRevenue() throws SQLException {
-        String sql = "SELECT SUM(total_amount) as total FROM sales";
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            if (rs.next()) {
-                return rs.getDouble("total");
+        return metrics.call("getTotalRevenue", () -> {
+            String sql = "SELECT SUM(total_amount) as total FROM sales_daily_rollup";
+            try (PooledConnection conn = readPool.acquire();
+                 ResultSet rs = conn.prepare(sql).executeQuery()) {
+
+                if (rs.next()) {
+                    return rs.getDouble("total");
+                }
             }
-        }
-        return 0.0;
+            return 0.0;
+        });
     }
 
     public double getTotalProfit() throws SQLException {
-        String sql = "SELECT SUM(profit) as total FROM sales";
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            if (rs.next()) {
-                return rs.getDouble("total");
+        return metrics.call("getTotalProfit", () -> {
+            String sql = "SELECT SUM(profit) as total FROM sales_daily_rollup";
+            try (PooledConnection conn = readPool.acquire();
+                 ResultSet rs = conn.prepare(sql).executeQuery()) {
+
+                if (rs.next()) {
+                    return rs.getDouble("total");
+                }
             }
-        }
-        return 0.0;
+            return 0.0;
+        });
     }
 
+    // Barkod araması bellekteki indeksten yapılır, ürün birincil anahtarla okunur
     public Product findByBarcode(String barcode) throws SQLException {
-        String sql = "SELECT * FROM products WHERE barcode = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        return metrics.call("findByBarcode", product -> product == null ? 0 : 1, () -> {
+            int productId = lookupBarcode(barcode);
+            if (productId == BarcodeIndex.NOT_FOUND) {
+                return null;
+            }
+            Product product = getProduct(productId);
+            if (product != null && barcode.equals(product.getBarcode())) {
+                return product;
+            }
+            // İndeks eskimiş (ürün başka bir süreçte silinmiş ya da barkodu değişmiş)
+            if (product == null) {
+                barcodeIndex.remove(productId);
+            } else {
+                barcodeIndex.put(productId, normalizeBarcode(product.getBarcode()));
+            }
+            productId = loadBarcode(barcode);
+            return productId == BarcodeIndex.NOT_FOUND ? null : getProduct(productId);
+        });
+    }
+
+    // Ürün satırı okumadan yalnızca ID gerekiyorsa (ör. barkod okuyucu); yoksa -1.
+    // İndekste bulunan ID ayrıca doğrulanmaz (findByBarcode ürün satırıyla doğrular)
+    public int findProductIdByBarcode(String barcode) throws SQLException {
+        return metrics.call("findProductIdByBarcode", id -> id == BarcodeIndex.NOT_FOUND ? 0 : 1, () -> {
+            return lookupBarcode(barcode);
+        });
+    }
+
+    // Önce bellekteki indekse bakılır; bulunamazsa veritabanına sorulur ve sonuç indekse
+    // eklenir. Başka bir süreçte (ikinci kasa, PosApiServer) eklenen ürünler de bulunur
+    private int lookupBarcode(String barcode) throws SQLException {
+        int productId = barcodeIndex().find(barcode);
+        return productId != BarcodeIndex.NOT_FOUND ? productId : loadBarcode(barcode);
+    }
+
+    // idx_products_barcode üzerinden tek satır okur
+    private int loadBarcode(String barcode) throws SQLException {
+        if (barcode == null) {
+            return BarcodeIndex.NOT_FOUND;
+        }
+        try (PooledConnection conn = readPool.acquire()) {
+            PreparedStatement pstmt = conn.prepare("SELECT id FROM products WHERE barcode = ?");
             pstmt.setString(1, barcode);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return extractProductFromResultSet(rs);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    int productId = rs.getInt(1);
+                    barcodeIndex.put(productId, barcode);
+                    return productId;
+                }
             }
         }
-        return null;
+        return BarcodeIndex.NOT_FOUND;
     }
 
     private boolean isBarcodeExists(String barcode) throws SQLException {
         if (barcode == null || barcode.trim().isEmpty()) {
             return false;
         }
-
-        String sql = "SELECT COUNT(*) FROM products WHERE barcode = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, barcode);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getInt(1) > 0;
-            }
-        }
-        return false;
+        return lookupBarcode(barcode) != BarcodeIndex.NOT_FOUND;
     }
 
     private boolean isBarcodeExistsExcept(String barcode, int productId) throws SQLException {
         if (barcode == null || barcode.trim().isEmpty()) {
             return false;
         }
+        int owner = lookupBarcode(barcode);
+        return owner != BarcodeIndex.NOT_FOUND && owner != productId;
+    }
 
-        String sql = "SELECT COUNT(*) FROM products WHERE barcode = ? AND id != ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, barcode);
-            pstmt.setInt(2, productId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getInt(1) > 0;
-            }
-        }
-        return false;
+    // Boş barkod NULL olarak saklanır; benzersiz barkod indeksi NULL'ları çakışma saymaz
+    private static String normalizeBarcode(String barcode) {
+        return barcode == null || barcode.trim().isEmpty() ? null : barcode;
     }
 
     private Product extractProductFromResultSet(ResultSet rs) throws SQLException {
@@ -315,6 +1344,7 @@ public class DatabaseManager {
         product.setCriticalLevel(rs.getInt("critical_level"));
         product.setBarcode(rs.getString("barcode"));
         product.setSupplier(rs.getString("supplier"));
+        product.setVersion(rs.getInt("version"));
         return product;
     }
 
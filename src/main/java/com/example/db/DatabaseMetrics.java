@@ -0,0 +1,383 @@
+package com.example.db;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * DatabaseManager'ın genel metotları için çağrı, hata ve satır sayıları ile
+ * gecikme histogramları; ayrıca çalıştırdığı SQL ifadeleriyle yavaş sorgu kaydı.
+ * Uzun süre çalışan süreçler registerMBean() ile JMX'e açar; istenirse
+ * belirli aralıklarla standart çıktıya yazılır (metrics.log.interval.s).
+ *
+ * Yavaş sorgu kaydı, eşiği aşan her işlemi süresi ve çalıştırdığı SQL ifadeleri
+ * (parametreleriyle) ile System.err'e yazar ve son RECENT_SLOW_QUERIES kaydı JMX
+ * için tutar. Süre ifade başına değil işlem başına ölçülür: SQLite satırları
+ * executeQuery'de değil next() ile okuduğundan sorgunun asıl süresi ancak sonuç
+ * kümesi tüketildiğinde bellidir ve her satır okumasını saran bir vekil büyük
+ * taramaları belirgin biçimde yavaşlatır.
+ */
+public class DatabaseMetrics implements DatabaseMetricsMXBean {
+    public static final String MBEAN_NAME = "com.example:type=DatabaseMetrics";
+    private static final int RECENT_SLOW_QUERIES = 50;
+    private static final int MAX_PARAMETER_LENGTH = 100;
+    private static final int MAX_TRACED_STATEMENTS = 8;
+
+    @FunctionalInterface
+    interface SqlCall<T> {
+        T call() throws SQLException;
+    }
+
+    @FunctionalInterface
+    interface SqlAction {
+        void run() throws SQLException;
+    }
+
+    private static final class Recorder {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+        final LongAdder rows = new LongAdder();
+        volatile String lastError = "";
+    }
+
+    private final Map<String, Recorder> operations = new ConcurrentHashMap<>();
+    private final LongAdder slowQueryCount = new LongAdder();
+    private final Deque<String> recentSlowQueries = new ArrayDeque<>();
+    private final ThreadLocal<Trace> traces = ThreadLocal.withInitial(Trace::new);
+    private volatile long slowQueryThresholdMs;
+    // Açılışta eşik kapalıysa ifadeler hiç sarılmaz (vekil maliyeti olmaz)
+    private final boolean instrumentStatements;
+    private ScheduledExecutorService logScheduler;
+    private long lastLoggedCalls;
+    private boolean registered;
+
+    DatabaseMetrics(long slowQueryThresholdMs) {
+        this.slowQueryThresholdMs = slowQueryThresholdMs;
+        this.instrumentStatements = slowQueryThresholdMs > 0;
+    }
+
+    // İşlemi çalıştırır ve ölçer; rows sonuçtan satır sayısını çıkarır
+    <T> T call(String operation, ToLongFunction<T> rows, SqlCall<T> call) throws SQLException {
+        Recorder recorder = operations.computeIfAbsent(operation, name -> new Recorder());
+        Trace trace = traces.get();
+        trace.depth++;
+        long start = System.nanoTime();
+        try {
+            T result = call.call();
+            recorder.rows.add(rows.applyAsLong(result));
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            recorder.errors.increment();
+            recorder.lastError = e.getClass().getSimpleName() + ": " + e.getMessage();
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            recorder.latency.record(elapsed / 1000);
+            // İç içe çağrılarda (ör. addSale -> addSales) kaydı en dıştaki işlem yazar
+            if (--trace.depth == 0) {
+                long threshold = slowQueryThresholdMs;
+                if (threshold > 0 && elapsed >= threshold * 1_000_000) {
+                    recordSlowOperation(operation, trace, elapsed);
+                }
+                trace.clear();
+            }
+        }
+    }
+
+    // Tek değer döndüren işlemler: her çağrı bir satır sayılır
+    <T> T call(String operation, SqlCall<T> call) throws SQLException {
+        return call(operation, ignored -> 1, call);
+    }
+
+    void run(String operation, long rows, SqlAction action) throws SQLException {
+        call(operation, ignored -> rows, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    @Override
+    public List<OperationStats> getOperations() {
+        List<OperationStats> stats = new ArrayList<>();
+        operations.forEach((name, recorder) -> {
+            LatencyHistogram latency = recorder.latency;
+            stats.add(new OperationStats(name, latency.count(), recorder.errors.sum(), recorder.rows.sum(),
+                latency.meanMicros() / 1000.0,
+                latency.percentileMicros(0.50) / 1000.0,
+                latency.percentileMicros(0.95) / 1000.0,
+                latency.percentileMicros(0.99) / 1000.0,
+                latency.maxMicros() / 1000.0,
+                recorder.lastError));
+        });
+        stats.sort(Comparator.comparing(OperationStats::getName));
+        return stats;
+    }
+
+    @Override
+    public long getSlowQueryThresholdMs() {
+        return slowQueryThresholdMs;
+    }
+
+    @Override
+    public void setSlowQueryThresholdMs(long thresholdMs) {
+        this.slowQueryThresholdMs = thresholdMs;
+    }
+
+    @Override
+    public long getSlowQueryCount() {
+        return slowQueryCount.sum();
+    }
+
+    @Override
+    public List<String> getRecentSlowQueries() {
+        synchronized (recentSlowQueries) {
+            return new ArrayList<>(recentSlowQueries);
+        }
+    }
+
+    @Override
+    public String dump() {
+        StringBuilder text = new StringBuilder("Veritabanı işlem ölçümleri:");
+        for (OperationStats stats : getOperations()) {
+            text.append('\n').append("  ").append(stats);
+        }
+        text.append('\n').append("  Yavaş sorgu sayısı: ").append(getSlowQueryCount());
+        return text.toString();
+    }
+
+    @Override
+    public void reset() {
+        operations.clear();
+        slowQueryCount.reset();
+        synchronized (recentSlowQueries) {
+            recentSlowQueries.clear();
+        }
+    }
+
+    /**
+     * Ölçümleri platform MBean sunucusuna kaydeder (jconsole / VisualVM). Sunucunun
+     * ilk açılışı ~0,2 s sürdüğünden kısa ömürlü komut satırı işleri bunu çağırmaz.
+     * Aynı adla kayıtlı eski bir örnek (ör. close() sonrası açılan yeni bağlantı) değiştirilir.
+     */
+    public synchronized void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(MBEAN_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(this, name);
+            registered = true;
+        } catch (JMException e) {
+            System.err.println("Veritabanı ölçümleri JMX'e kaydedilemedi: " + e.getMessage());
+        }
+    }
+
+    synchronized void unregisterMBean() {
+        if (!registered) {
+            return;
+        }
+        registered = false;
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(MBEAN_NAME));
+        } catch (JMException e) {
+            // Yerine başka bir örnek kaydedilmiş olabilir
+        }
+    }
+
+    // Ölçümleri belirli aralıklarla standart çıktıya yazar; arada çağrı yoksa yazmaz
+    synchronized void startLogging(long intervalSeconds) {
+        if (intervalSeconds <= 0 || logScheduler != null) {
+            return;
+        }
+        logScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "db-metrics-log");
+            thread.setDaemon(true);
+            return thread;
+        });
+        logScheduler.scheduleAtFixedRate(this::logIfChanged, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    synchronized void stopLogging() {
+        if (logScheduler != null) {
+            logScheduler.shutdownNow();
+            logScheduler = null;
+        }
+    }
+
+    private void logIfChanged() {
+        long calls = getOperations().stream().mapToLong(OperationStats::getCalls).sum();
+        if (calls != lastLoggedCalls) {
+            lastLoggedCalls = calls;
+            System.out.println(dump());
+        }
+    }
+
+    // Hazırlanmış ifadeyi yavaş sorgu kaydı için sarar: parametreleri izler ve
+    // execute* çağrılarını o iş parçacığında süren işleme ekler
+    PreparedStatement instrument(String sql, PreparedStatement statement) {
+        if (!instrumentStatements) {
+            return statement;
+        }
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+            new Class<?>[] {PreparedStatement.class}, new TracedStatement(sql, statement));
+    }
+
+    private void recordSlowOperation(String operation, Trace trace, long elapsedNanos) {
+        long elapsedMs = elapsedNanos / 1_000_000;
+        StringBuilder entry = new StringBuilder()
+            .append("Yavaş sorgu (").append(elapsedMs).append(" ms, ").append(operation).append("): ");
+        if (trace.statements.isEmpty()) {
+            entry.append("(izlenen ifade yok)");
+        }
+        for (int i = 0; i < trace.statements.size(); i++) {
+            if (i > 0) {
+                entry.append(" ; ");
+            }
+            Execution execution = trace.statements.get(i);
+            entry.append(describeStatement(execution.sql, execution.parameters, execution.batchSize));
+        }
+        if (trace.omitted > 0) {
+            entry.append(" ; (+").append(trace.omitted).append(" ifade)");
+        }
+        String line = entry.toString();
+
+        slowQueryCount.increment();
+        synchronized (recentSlowQueries) {
+            recentSlowQueries.addFirst(line);
+            if (recentSlowQueries.size() > RECENT_SLOW_QUERIES) {
+                recentSlowQueries.removeLast();
+            }
+        }
+        System.err.println(line);
+    }
+
+    private static String describeStatement(String sql, Object[] parameters, int batchSize) {
+        StringBuilder text = new StringBuilder(sql.strip().replaceAll("\\s+", " "));
+        if (batchSize > 0) {
+            text.append(" | toplu: ").append(batchSize).append(" satır, son");
+        }
+        text.append(" | parametreler: [");
+        for (int i = 1; i < parameters.length; i++) {
+            if (i > 1) {
+                text.append(", ");
+            }
+            Object value = parameters[i];
+            if (value instanceof String) {
+                String s = (String) value;
+                text.append('\'')
+                    .append(s.length() > MAX_PARAMETER_LENGTH ? s.substring(0, MAX_PARAMETER_LENGTH) + "…" : s)
+                    .append('\'');
+            } else {
+                text.append(value);
+            }
+        }
+        return text.append(']').toString();
+    }
+
+    // Çalıştırılan ifade; metin yalnızca işlem yavaşsa oluşturulur
+    private static final class Execution {
+        final String sql;
+        final Object[] parameters;
+        final int batchSize;
+
+        Execution(String sql, Object[] parameters, int batchSize) {
+            this.sql = sql;
+            this.parameters = parameters;
+            this.batchSize = batchSize;
+        }
+    }
+
+    // Bir iş parçacığında süren en dıştaki işlem ve çalıştırdığı ifadeler
+    private static final class Trace {
+        final List<Execution> statements = new ArrayList<>();
+        int depth;
+        int omitted;
+
+        void clear() {
+            statements.clear();
+            omitted = 0;
+        }
+    }
+
+    // Bağlantıyı kullanan tek iş parçacığı tarafından çağrılır (StatementCache gibi senkronize değildir)
+    private final class TracedStatement implements InvocationHandler {
+        private final String sql;
+        private final PreparedStatement statement;
+        private Object[] parameters = new Object[8];
+        private int batchSize;
+
+        TracedStatement(String sql, PreparedStatement statement) {
+            this.sql = sql;
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                int index = (Integer) args[0];
+                if (index > 0 && index < 1000) {
+                    if (index >= parameters.length) {
+                        parameters = Arrays.copyOf(parameters, index + 8);
+                    }
+                    parameters[index] = args[1];
+                }
+            } else if (name.equals("clearParameters")) {
+                Arrays.fill(parameters, null);
+            } else if (name.equals("addBatch")) {
+                batchSize++;
+            } else if (name.equals("clearBatch")) {
+                batchSize = 0;
+            } else if (name.startsWith("execute")) {
+                traceExecution(name.equals("executeBatch") ? batchSize : 0);
+                if (name.equals("executeBatch")) {
+                    batchSize = 0;
+                }
+            }
+
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        // İşlem dışında (ör. şema geçişi) çalışan ifadeler kaydedilmez
+        private void traceExecution(int batch) {
+            Trace trace = traces.get();
+            if (trace.depth == 0) {
+                return;
+            }
+            if (trace.statements.size() >= MAX_TRACED_STATEMENTS) {
+                trace.omitted++;
+                return;
+            }
+            int length = parameters.length;
+            while (length > 1 && parameters[length - 1] == null) {
+                length--;
+            }
+            trace.statements.add(new Execution(sql, Arrays.copyOf(parameters, length), batch));
+        }
+    }
+}
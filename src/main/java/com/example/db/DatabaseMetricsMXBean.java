@@ -0,0 +1,25 @@
+package com.example.db;
+
+import java.util.List;
+
+/**
+ * DatabaseMetrics'in JMX arayüzü (jconsole / VisualVM: com.example:type=DatabaseMetrics).
+ */
+public interface DatabaseMetricsMXBean {
+    List<OperationStats> getOperations();
+
+    long getSlowQueryThresholdMs();
+
+    // 0 ya da negatif: yavaş sorgu kaydı kapalı. Açılışta kapalıysa (metrics.slow.query.ms)
+    // SQL ifadeleri izlenmez; sonradan açılırsa yavaş işlemler ifadeleri olmadan kaydedilir
+    void setSlowQueryThresholdMs(long thresholdMs);
+
+    long getSlowQueryCount();
+
+    // En yeni başta
+    List<String> getRecentSlowQueries();
+
+    String dump();
+
+    void reset();
+}
@@ -0,0 +1,28 @@
+package com.example.db;
+
+import java.sql.SQLException;
+
+/**
+ * Koşullu stok düşümü hiçbir satırı etkilemediğinde (stok yetersiz ya da ürün
+ * silinmiş) fırlatılır. Satış işlemi bu durumda tamamen geri alınır.
+ */
+public class InsufficientStockException extends SQLException {
+    private static final long serialVersionUID = 1L;
+
+    private final int productId;
+    private final int requestedQuantity;
+
+    public InsufficientStockException(int productId, int requestedQuantity) {
+        super("Stokta yeterli ürün yok (ürün ID: " + productId + ", istenen: " + requestedQuantity + ")");
+        this.productId = productId;
+        this.requestedQuantity = requestedQuantity;
+    }
+
+    public int getProductId() {
+        return productId;
+    }
+
+    public int getRequestedQuantity() {
+        return requestedQuantity;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.db;
+
+/**
+ * Bir DatabaseManager işleminin (genel metot) o ana kadarki ölçümleri.
+ * Gecikmeler milisaniyedir; yüzdelikler histogram kovasının üst sınırıdır.
+ */
+public class OperationStats {
+    private final String name;
+    private final long calls;
+    private final long errors;
+    private final long rows;
+    private final double meanMs;
+    private final double p50Ms;
+    private final double p95Ms;
+    private final double p99Ms;
+    private final double maxMs;
+    private final String lastError;
+
+    OperationStats(String name, long calls, long errors, long rows, double meanMs,
+                   double p50Ms, double p95Ms, double p99Ms, double maxMs, String lastError) {
+        this.name = name;
+        this.calls = calls;
+        this.errors = errors;
+        this.rows = rows;
+        this.meanMs = meanMs;
+        this.p50Ms = p50Ms;
+        this.p95Ms = p95Ms;
+        this.p99Ms = p99Ms;
+        this.maxMs = maxMs;
+        this.lastError = lastError;
+    }
+
+    public String getName() { return name; }
+
+    public long getCalls() { return calls; }
+
+    public long getErrors() { return errors; }
+
+    // Okunan ya da yazılan satır sayısı (tek değer döndüren sorgularda 1)
+    public long getRows() { return rows; }
+
+    public double getMeanMs() { return meanMs; }
+
+    public double getP50Ms() { return p50Ms; }
+
+    public double getP95Ms() { return p95Ms; }
+
+    public double getP99Ms() { return p99Ms; }
+
+    public double getMaxMs() { return maxMs; }
+
+    // Son hatanın mesajı; hata yoksa boş
+    public String getLastError() { return lastError; }
+
+    @Override
+    public String toString() {
+        return String.format("%-28s %8d çağrı %5d hata %10d satır  ort %8.2f  p50 %8.2f  p95 %8.2f  p99 %8.2f  en fazla %8.2f ms",
+            name, calls, errors, rows, meanMs, p50Ms, p95Ms, p99Ms, maxMs);
+    }
+}
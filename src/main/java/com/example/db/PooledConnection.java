@@ -0,0 +1,96 @@
+package com.example.db;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Havuzdan ödünç alınan bağlantı. close() çağrıldığında fiziksel bağlantı
+ * kapanmaz, havuza geri döner; hazırlanmış ifadeler bağlantıyla birlikte kalır.
+ */
+class PooledConnection implements AutoCloseable {
+    private final Connection connection;
+    private final StatementCache statementCache;
+    private final ConnectionPool pool;
+    // ATTACH edilmiş satış arşivleri; bağlantı havuza dönse de bağlı kalır
+    private final Set<String> attached = new HashSet<>();
+
+    PooledConnection(Connection connection, StatementCache statementCache, ConnectionPool pool) {
+        this.connection = connection;
+        this.statementCache = statementCache;
+        this.pool = pool;
+    }
+
+    Connection connection() {
+        return connection;
+    }
+
+    PreparedStatement prepare(String sql) throws SQLException {
+        return statementCache.prepare(sql);
+    }
+
+    // Önbelleğe alınmayan ifade; çağıran kapatmalıdır
+    PreparedStatement prepareUncached(String sql) throws SQLException {
+        return statementCache.prepareUncached(sql);
+    }
+
+    // sqlite-jdbc getGeneratedKeys() desteklemediği için son eklenen satırın ID'si
+    int lastInsertId() throws SQLException {
+        try (ResultSet rs = prepare("SELECT last_insert_rowid()").executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    // ATTACH/DETACH işlem içinde çalışmaz; otomatik onay açıkken çağrılmalı
+    void attach(String alias, Path file) throws SQLException {
+        if (attached.contains(alias)) {
+            return;
+        }
+        try (PreparedStatement pstmt = connection.prepareStatement("ATTACH DATABASE ? AS " + alias)) {
+            pstmt.setString(1, file.toString());
+            pstmt.execute();
+        }
+        attached.add(alias);
+    }
+
+    void detach(String alias) throws SQLException {
+        if (attached.remove(alias)) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DETACH DATABASE " + alias);
+            }
+        }
+    }
+
+    boolean isAttached(String alias) {
+        return attached.contains(alias);
+    }
+
+    int attachedCount() {
+        return attached.size();
+    }
+
+    List<String> attachedAliases() {
+        return new ArrayList<>(attached);
+    }
+
+    void closePhysical() {
+        statementCache.closeAll();
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            System.err.println("Bağlantı kapatılamadı: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        pool.release(this);
+    }
+}
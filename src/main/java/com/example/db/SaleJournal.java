@@ -0,0 +1,248 @@
+package com.example.db;
+
+import com.example.model.Sale;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Satışlar için bellek eşlemli (memory-mapped), sağlama toplamlı ekleme günlüğü.
+ * Günlük modunda satış önce bu dosyaya eklenir ve hemen onaylanır; arka plandaki
+ * boşaltıcı (flusher) biriken kayıtları büyük işlemler halinde veritabanına yazar.
+ *
+ * Dosya düzeni:
+ *   başlık: sihirli sayı (int), kuşak (int), 8 bayt boş
+ *   kayıt:  uzunluk (int), CRC32 (long), içerik
+ * Son kaydın ardından her zaman 0 uzunluk (sonlandırıcı) yazılır; okuma ilk
+ * sonlandırıcıda ya da sağlama toplamı tutmayan kayıtta durur.
+ *
+ * Hangi kayda kadar veritabanına yazıldığı (kuşak, konum) bilgisi veritabanında,
+ * satışlarla aynı işlemde tutulur; böylece çökme sonrası yeniden oynatmada kayıt
+ * ne kaybolur ne de iki kez yazılır. Günlük tamamen boşaltıldığında başa sarılır
+ * ve kuşak numarası artırılır.
+ *
+ * Not: Kayıtlar işletim sisteminin sayfa önbelleğine yazılır; süreç çökmesine
+ * karşı dayanıklıdır. Elektrik kesintisine karşı her eklemede diske zorlamak
+ * için journal.force=true verilmelidir (ekleme gecikmesi milisaniyelere çıkar).
+ */
+class SaleJournal implements AutoCloseable {
+    static final int HEADER_SIZE = 16;
+    private static final int MAGIC = 0x534A4E4C; // "SJNL"
+    private static final int RECORD_HEADER_SIZE = Integer.BYTES + Long.BYTES;
+
+    /** Boşaltıcının günlükten okuduğu kayıtlar ve her birinin bittiği konum. */
+    static final class Batch {
+        final int generation;
+        final List<Sale> sales = new ArrayList<>();
+        final List<Long> endOffsets = new ArrayList<>();
+
+        Batch(int generation) {
+            this.generation = generation;
+        }
+    }
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final boolean forceOnAppend;
+    private int generation;
+    private long flushedOffset;
+    private volatile long writeOffset;
+
+    SaleJournal(Path path, long sizeBytes, boolean forceOnAppend) throws IOException {
+        this.forceOnAppend = forceOnAppend;
+        boolean created = !Files.exists(path);
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = Math.max(sizeBytes, created ? 0 : channel.size());
+        // Tek bir eşleme en fazla Integer.MAX_VALUE bayt olabilir
+        if (size > Integer.MAX_VALUE) {
+            channel.close();
+            throw new IOException("Satış günlüğü en fazla 2047 MB olabilir (journal.size.mb): " + size / (1024 * 1024) + " MB");
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+
+        if (created || buffer.getInt(0) != MAGIC) {
+            buffer.putInt(HEADER_SIZE, 0);
+            buffer.putInt(4, 0);
+            buffer.putInt(0, MAGIC);
+        }
+        generation = buffer.getInt(4);
+        flushedOffset = HEADER_SIZE;
+        writeOffset = HEADER_SIZE;
+    }
+
+    int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Veritabanında kayıtlı boşaltma konumunu uygular ve yazma konumunu, o
+     * noktadan sonraki geçerli kayıtların sonuna taşır (yeniden oynatma).
+     */
+    synchronized void recover(int storedGeneration, long storedOffset) {
+        flushedOffset = storedGeneration == generation && storedOffset >= HEADER_SIZE
+            ? storedOffset
+            : HEADER_SIZE;
+        long position = flushedOffset;
+        while (true) {
+            long next = nextRecordEnd(position);
+            if (next < 0) {
+                break;
+            }
+            position = next;
+        }
+        writeOffset = position;
+        writeTerminator(position);
+    }
+
+    long pendingBytes() {
+        return writeOffset - flushedOffset;
+    }
+
+    void append(List<Sale> sales) throws SQLException {
+        byte[][] records = new byte[sales.size()][];
+        int total = 0;
+        for (int i = 0; i < sales.size(); i++) {
+            records[i] = encode(sales.get(i));
+            total += RECORD_HEADER_SIZE + records[i].length;
+        }
+
+        synchronized (this) {
+            if (writeOffset + total + Integer.BYTES > buffer.capacity()) {
+                throw new JournalFullException();
+            }
+            long position = writeOffset;
+            CRC32 crc = new CRC32();
+            for (byte[] record : records) {
+                crc.reset();
+                crc.update(record);
+                int offset = (int) position;
+                buffer.putLong(offset + Integer.BYTES, crc.getValue());
+                buffer.put(offset + RECORD_HEADER_SIZE, record);
+                // Önce sonlandırıcı, en son uzunluk: yarım kayıt hiçbir zaman geçerli görünmez
+                buffer.putInt(offset + RECORD_HEADER_SIZE + record.length, 0);
+                buffer.putInt(offset, record.length);
+                position += RECORD_HEADER_SIZE + record.length;
+            }
+            if (forceOnAppend) {
+                buffer.force();
+            }
+            writeOffset = position;
+        }
+    }
+
+    /** Boşaltılmamış kayıtlardan en fazla maxSales tanesini okur. */
+    synchronized Batch read(int maxSales) {
+        Batch batch = new Batch(generation);
+        long position = flushedOffset;
+        while (position < writeOffset && batch.sales.size() < maxSales) {
+            int length = buffer.getInt((int) position);
+            byte[] record = new byte[length];
+            buffer.get((int) position + RECORD_HEADER_SIZE, record);
+            position += RECORD_HEADER_SIZE + length;
+            batch.sales.add(decode(record));
+            batch.endOffsets.add(position);
+        }
+        return batch;
+    }
+
+    /**
+     * Kayıtlar veritabanına yazıldıktan sonra çağrılır. Günlük tamamen boşaldıysa
+     * başa sarar ve yeni kuşağa geçer.
+     */
+    synchronized void markFlushed(int batchGeneration, long offset) {
+        if (batchGeneration != generation) {
+            return;
+        }
+        flushedOffset = offset;
+        if (flushedOffset == writeOffset && writeOffset > HEADER_SIZE) {
+            // Önce başa sonlandırıcı yazılır, sonra kuşak artırılır (çökme güvenli sıra)
+            writeTerminator(HEADER_SIZE);
+            generation++;
+            buffer.putInt(4, generation);
+            buffer.force();
+            flushedOffset = HEADER_SIZE;
+            writeOffset = HEADER_SIZE;
+        }
+    }
+
+    private long nextRecordEnd(long position) {
+        if (position + RECORD_HEADER_SIZE > buffer.capacity()) {
+            return -1;
+        }
+        int length = buffer.getInt((int) position);
+        if (length <= 0 || position + RECORD_HEADER_SIZE + length > buffer.capacity()) {
+            return -1;
+        }
+        byte[] record = new byte[length];
+        buffer.get((int) position + RECORD_HEADER_SIZE, record);
+        CRC32 crc = new CRC32();
+        crc.update(record);
+        if (crc.getValue() != buffer.getLong((int) position + Integer.BYTES)) {
+            return -1;
+        }
+        return position + RECORD_HEADER_SIZE + length;
+    }
+
+    private void writeTerminator(long position) {
+        if (position + Integer.BYTES <= buffer.capacity()) {
+            buffer.putInt((int) position, 0);
+        }
+    }
+
+    private static byte[] encode(Sale sale) {
+        byte[] name = sale.getProductName() == null
+            ? new byte[0]
+            : sale.getProductName().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = ByteBuffer.allocate(4 + 4 + 8 + 8 + 8 + 8 + 4 + name.length);
+        record.putInt(sale.getProductId());
+        record.putInt(sale.getQuantity());
+        record.putDouble(sale.getUnitPrice());
+        record.putDouble(sale.getTotalAmount());
+        record.putDouble(sale.getProfit());
+        record.putLong(sale.getSaleDate().getTime());
+        record.putInt(name.length);
+        record.put(name);
+        return record.array();
+    }
+
+    private static Sale decode(byte[] bytes) {
+        ByteBuffer record = ByteBuffer.wrap(bytes);
+        Sale sale = new Sale();
+        sale.setProductId(record.getInt());
+        sale.setQuantity(record.getInt());
+        sale.setUnitPrice(record.getDouble());
+        sale.setTotalAmount(record.getDouble());
+        sale.setProfit(record.getDouble());
+        sale.setSaleDate(new Date(record.getLong()));
+        byte[] name = new byte[record.getInt()];
+        record.get(name);
+        sale.setProductName(new String(name, StandardCharsets.UTF_8));
+        return sale;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    /** Günlükte yer kalmadığında fırlatılır; çağıran boşaltıp yeniden dener. */
+    static final class JournalFullException extends SQLException {
+        private static final long serialVersionUID = 1L;
+
+        JournalFullException() {
+            super("Satış günlüğü dolu.");
+        }
+    }
+}
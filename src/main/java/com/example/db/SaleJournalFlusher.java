@@ -0,0 +1,85 @@
+package com.example.db;
+
+import java.sql.SQLException;
+
+/**
+ * Satış günlüğünü arka planda veritabanına boşaltan iş parçacığı. Belirli
+ * aralıklarla ya da günlük dolmaya yaklaştığında uyanır ve biriken kayıtları
+ * büyük işlemler halinde yazar.
+ */
+class SaleJournalFlusher implements Runnable {
+    private final SaleJournal journal;
+    private final DatabaseManager dbManager;
+    private final long intervalMs;
+    private final int batchSize;
+    private final Thread thread;
+    private final Object drainLock = new Object();
+    private volatile boolean running = true;
+
+    SaleJournalFlusher(SaleJournal journal, DatabaseManager dbManager, long intervalMs, int batchSize) {
+        this.journal = journal;
+        this.dbManager = dbManager;
+        this.intervalMs = intervalMs;
+        this.batchSize = batchSize;
+        this.thread = new Thread(this, "sale-journal-flusher");
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    // Boşaltıcıyı bekletmeden uyandırır
+    synchronized void wakeUp() {
+        notifyAll();
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            boolean failed = false;
+            try {
+                drain();
+            } catch (SQLException e) {
+                // Kayıtlar günlükte kalır, bir sonraki turda yeniden denenir
+                failed = true;
+                System.err.println("Satış günlüğü boşaltılamadı: " + e.getMessage());
+            }
+            synchronized (this) {
+                if (running && (failed || journal.pendingBytes() == 0)) {
+                    try {
+                        wait(intervalMs);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    // Günlükte bekleyen tüm kayıtları yazar; birden fazla iş parçacığı çağırabilir
+    void drain() throws SQLException {
+        synchronized (drainLock) {
+            while (true) {
+                SaleJournal.Batch batch = journal.read(batchSize);
+                if (batch.sales.isEmpty()) {
+                    return;
+                }
+                dbManager.flushJournalBatch(journal, batch);
+            }
+        }
+    }
+
+    // Bekleyen kayıtları yazar ve iş parçacığını durdurur
+    void stop() throws SQLException {
+        running = false;
+        wakeUp();
+        try {
+            thread.join(10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drain();
+    }
+}
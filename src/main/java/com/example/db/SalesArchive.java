@@ -0,0 +1,509 @@
+package com.example.db;
+
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteConnection;
+import org.sqlite.SQLiteConnectionConfig;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Satışların aylık bölümlenmesi. Kapanmış aylar (sales.archive.hot.months kadar
+ * son ay hariç) ana veritabanından ay başına bir arşiv dosyasına
+ * (sales_archive/sales_2024_05.db) taşınır ve sales_partitions tablosuna
+ * kaydedilir. Arşivler okunurken bağlantıya ATTACH edilir; yalnızca istenen
+ * aralıkla kesişen aylar bağlanır ve okunur.
+ *
+ * Taşıma üç adımdır ve her adım ayrı işlemdir: (1) ayın satırları arşive
+ * kopyalanır, (2) katalogda ayın last_id değeri kopyalanan en büyük ID'ye
+ * çekilir, (3) ana tablodaki kopyalar küçük parçalar halinde silinir (satış
+ * yazanlar uzun süre beklemesin). Okuyucular arşivlenmiş bir ayda arşivden
+ * id <= last_id, ana tablodan id > last_id satırlarını alır; böylece adımlar
+ * arasında satır ne kaybolur ne iki kez okunur. Arşivlenmiş bir aya sonradan
+ * yazılan satışlar (ör. günlükten geç boşaltılan) ana tabloda kalır, okunur ve
+ * bir sonraki çalıştırmada arşive eklenir. Katalog ile ana tablo aynı işlem
+ * içinde okunur.
+ */
+class SalesArchive {
+    // sqlite-jdbc derlemesindeki üst sınır (SQLITE_MAX_ATTACHED); varsayılan sınır 10'dur
+    static final int ATTACH_LIMIT = 125;
+    // Bir okumada aynı anda bağlanan en fazla arşiv; daha uzun aralıklar parça parça okunur
+    private static final int MAX_ATTACHED = 120;
+    private static final int DELETE_CHUNK = 10_000;
+    // Tüm zamanlar (1970 - 9999); date() ile güne çevrilebilen aralık
+    static final long MIN_DATE = 0;
+    static final long MAX_DATE = 253402300799999L;
+
+    private static final String COLUMNS =
+        "id, product_id, product_name, quantity, unit_price, total_amount, sale_date, profit";
+
+    private final Path directory;
+    private final int hotMonths;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    SalesArchive(StorageProfile profile) {
+        this.directory = Path.of(profile.getProperty("sales.archive.dir", "sales_archive"));
+        this.hotMonths = Math.max(1, profile.getInt("sales.archive.hot.months", 1));
+    }
+
+    // Arşivlenmiş bir ay
+    static final class Partition {
+        final String month;
+        final String file;
+        final long start;
+        final long end;
+        final long firstId;
+        final long lastId;
+
+        Partition(String month, String file, long start, long end, long firstId, long lastId) {
+            this.month = month;
+            this.file = file;
+            this.start = start;
+            this.end = end;
+            this.firstId = firstId;
+            this.lastId = lastId;
+        }
+
+        String alias() {
+            return "sales_" + month.replace('-', '_');
+        }
+    }
+
+    /**
+     * Okunacak satış kaynağı: ana tablo ve/veya arşiv dosyaları. Her kol (arm) aynı
+     * sorgu şablonundan üretilir ve UNION ALL ile birleştirilir; şablondaki ilk %s
+     * tablo, ikinci %s kolun ID koşuludur. Koşul şablonun sonunda olmalıdır: her kolda
+     * önce şablonun parametreleri, ardından koşulun parametreleri bağlanır.
+     */
+    static final class Segment {
+        final long from;
+        final long to;
+        private final List<String> tables = new ArrayList<>();
+        private final List<String> conditions = new ArrayList<>();
+        private final List<long[]> conditionValues = new ArrayList<>();
+        private boolean archived;
+
+        Segment(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        private Segment arm(String table, String condition, long... values) {
+            tables.add(table);
+            conditions.add(condition);
+            conditionValues.add(values);
+            archived |= !table.equals("main.sales");
+            return this;
+        }
+
+        String union(String template) {
+            StringBuilder sql = new StringBuilder();
+            for (int i = 0; i < tables.size(); i++) {
+                if (i > 0) {
+                    sql.append(" UNION ALL ");
+                }
+                sql.append(String.format(template, tables.get(i), conditions.get(i)));
+            }
+            return sql.toString();
+        }
+
+        /**
+         * İfadeyi hazırlar, şablonun parametrelerini (values) ve kol koşullarını bağlayıp
+         * work'e verir. Yalnızca ana tabloyu okuyan bölümlerin SQL'i sabittir ve ifade
+         * önbelleğinden gelir; arşiv kolları her ay için ayrı SQL ürettiğinden ifade bir
+         * kez hazırlanıp kapatılır, sık kullanılan ifadeler önbellekten atılmasın.
+         */
+        void execute(PooledConnection conn, String sql, StatementWork work, long... values) throws SQLException {
+            if (!archived) {
+                work.run(bind(conn.prepare(sql), values));
+                return;
+            }
+            try (PreparedStatement pstmt = conn.prepareUncached(sql)) {
+                work.run(bind(pstmt, values));
+            }
+        }
+
+        private PreparedStatement bind(PreparedStatement pstmt, long[] values) throws SQLException {
+            int index = 1;
+            for (long[] armValues : conditionValues) {
+                for (long value : values) {
+                    pstmt.setLong(index++, value);
+                }
+                for (long value : armValues) {
+                    pstmt.setLong(index++, value);
+                }
+            }
+            return pstmt;
+        }
+    }
+
+    @FunctionalInterface
+    interface SegmentReader {
+        void read(Segment segment) throws SQLException;
+    }
+
+    @FunctionalInterface
+    interface StatementWork {
+        void run(PreparedStatement pstmt) throws SQLException;
+    }
+
+    // Tarih aralığı (her iki uç dahil) zaman sırasıyla bölümlere ayrılır; arşivlenmiş
+    // her ay ayrı, aradaki arşivlenmemiş aylar tek bir ana tablo bölümü olarak okunur.
+    // Bölümler aynı işlemde okunur; okuyucu yazma bağlantısında yazarsa işlem onaylanır
+    void readRange(PooledConnection conn, long from, long to, SegmentReader reader) throws SQLException {
+        readRange(conn, from, to, false, reader);
+    }
+
+    // readRange gibi, ancak okuyucu bölümlere göre yazacaksa (ör. özet tablosu yeniden
+    // oluşturma): her pencerenin işlemi yazma kilidiyle (BEGIN IMMEDIATE) başlar
+    void updateRange(PooledConnection conn, long from, long to, SegmentReader reader) throws SQLException {
+        readRange(conn, from, to, true, reader);
+    }
+
+    private void readRange(PooledConnection conn, long from, long to, boolean immediate, SegmentReader reader)
+            throws SQLException {
+        long windowStart = from;
+        while (windowStart <= to) {
+            List<Partition> planned = partitionsInRange(conn, windowStart, to);
+            long windowEnd = planned.size() > MAX_ATTACHED ? planned.get(MAX_ATTACHED).start - 1 : to;
+            attach(conn, planned.subList(0, Math.min(planned.size(), MAX_ATTACHED)));
+
+            Connection connection = conn.connection();
+            begin(connection, immediate);
+            try {
+                List<Partition> partitions = partitionsInRange(conn, windowStart, windowEnd);
+                // Plan ile işlem arasında yeni bir ay arşivlendiyse bağlanıp yeniden denenir
+                if (!isAttached(conn, partitions)) {
+                    continue;
+                }
+                long cursor = windowStart;
+                for (Partition partition : partitions) {
+                    if (partition.start > cursor) {
+                        reader.read(new Segment(cursor, partition.start - 1).arm("main.sales", "1"));
+                    }
+                    long segmentEnd = Math.min(windowEnd, partition.end - 1);
+                    reader.read(new Segment(Math.max(cursor, partition.start), segmentEnd)
+                        .arm(partition.alias() + ".sales", "id <= ?", partition.lastId)
+                        .arm("main.sales", "id > ?", partition.lastId));
+                    cursor = segmentEnd + 1;
+                }
+                if (cursor <= windowEnd) {
+                    reader.read(new Segment(cursor, windowEnd).arm("main.sales", "1"));
+                }
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+            windowStart = windowEnd + 1;
+        }
+    }
+
+    /**
+     * ID'si afterId'den büyük satışlar. Her çağrıda verilen bölümün kolları ID
+     * sırasıyla birleştirilir (şablon parametreleri: alt sınır hariç, üst sınır
+     * dahil); bölümler de ID sırasıyla gelir.
+     */
+    void readAfterId(PooledConnection conn, long afterId, SegmentReader reader) throws SQLException {
+        long lower = afterId;
+        while (true) {
+            List<Partition> planned = partitionsAfterId(conn, lower, Long.MAX_VALUE);
+            // Pencere dışındaki arşivlerin tüm ID'leri üst sınırdan büyüktür
+            long upper = planned.size() > MAX_ATTACHED ? planned.get(MAX_ATTACHED).firstId - 1 : Long.MAX_VALUE;
+            attach(conn, planned.subList(0, Math.min(planned.size(), MAX_ATTACHED)));
+
+            Connection connection = conn.connection();
+            connection.setAutoCommit(false);
+            try {
+                List<Partition> partitions = partitionsAfterId(conn, lower, upper);
+                if (!isAttached(conn, partitions)) {
+                    continue;
+                }
+                Segment segment = new Segment(lower, upper);
+                StringBuilder pending = new StringBuilder("1");
+                long[] pendingValues = new long[partitions.size() * 3];
+                for (int i = 0; i < partitions.size(); i++) {
+                    Partition partition = partitions.get(i);
+                    segment.arm(partition.alias() + ".sales", "id <= ?", partition.lastId);
+                    // Ana tabloda silinmeyi bekleyen (arşive kopyalanmış) satırlar atlanır
+                    pending.append(" AND NOT (sale_date >= ? AND sale_date < ? AND id <= ?)");
+                    pendingValues[i * 3] = partition.start;
+                    pendingValues[i * 3 + 1] = partition.end;
+                    pendingValues[i * 3 + 2] = partition.lastId;
+                }
+                reader.read(segment.arm("main.sales", pending.toString(), pendingValues));
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+            if (upper == Long.MAX_VALUE) {
+                return;
+            }
+            lower = upper;
+        }
+    }
+
+    // Ertelemeli (DEFERRED) işlemde önce okuyup sonra yazan bağlantı, arada başka bir
+    // yazıcı onaylarsa SQLITE_BUSY_SNAPSHOT alır; IMMEDIATE kilidi baştan alır ve
+    // diğer yazıcılar (satışlar) busy_timeout kadar bekler
+    private static void begin(Connection connection, boolean immediate) throws SQLException {
+        if (!immediate) {
+            connection.setAutoCommit(false);
+            return;
+        }
+        SQLiteConnectionConfig config = connection.unwrap(SQLiteConnection.class).getConnectionConfig();
+        config.setTransactionMode(SQLiteConfig.TransactionMode.IMMEDIATE);
+        try {
+            connection.setAutoCommit(false);
+        } finally {
+            // commit() sonrası açılan işlemler yine ertelemeli olsun
+            config.setTransactionMode(SQLiteConfig.TransactionMode.DEFERRED);
+        }
+    }
+
+    // Arşivdeki en eski satışın tarihi; arşiv boşsa null
+    Long firstArchivedSaleDate(PooledConnection conn) throws SQLException {
+        try (ResultSet rs = conn.prepare("SELECT MIN(first_sale_date) FROM sales_partitions").executeQuery()) {
+            if (rs.next()) {
+                long first = rs.getLong(1);
+                return rs.wasNull() ? null : first;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Kapanmış ayları arşiv dosyalarına taşır ve taşınan satır sayısını döndürür.
+     * Yazma bağlantısıyla çağrılır; aynı ay için tekrar çalıştırmak güvenlidir.
+     */
+    long archiveClosedMonths(PooledConnection conn) throws SQLException {
+        long cutoff = YearMonth.now(zone).minusMonths(hotMonths - 1L)
+            .atDay(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        long moved = 0;
+        long from = MIN_DATE;
+        while (true) {
+            PreparedStatement pstmt = conn.prepare(
+                "SELECT MIN(sale_date) FROM sales WHERE sale_date >= ? AND sale_date < ?");
+            pstmt.setLong(1, from);
+            pstmt.setLong(2, cutoff);
+            long first;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                first = rs.next() ? rs.getLong(1) : 0;
+                if (rs.wasNull()) {
+                    return moved;
+                }
+            }
+            YearMonth month = YearMonth.from(Instant.ofEpochMilli(first).atZone(zone));
+            moved += archiveMonth(conn, month);
+            from = month.plusMonths(1).atDay(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        }
+    }
+
+    private long archiveMonth(PooledConnection conn, YearMonth month) throws SQLException {
+        long start = month.atDay(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        long end = month.plusMonths(1).atDay(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        Partition partition = new Partition(month.toString(),
+            "sales_" + month.toString().replace('-', '_') + ".db", start, end, 0, 0);
+        String alias = partition.alias();
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new SQLException("Satış arşivi klasörü oluşturulamadı: " + e.getMessage(), e);
+        }
+
+        Connection connection = conn.connection();
+        long lastId = 0;
+        try (PreparedStatement pstmt = connection.prepareStatement(
+                "SELECT last_id FROM sales_partitions WHERE month = ?")) {
+            pstmt.setString(1, partition.month);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    lastId = rs.getLong(1);
+                }
+            }
+        }
+
+        conn.attach(alias, directory.resolve(partition.file));
+        try (Statement statement = connection.createStatement()) {
+            // Arşiv bir kez yazılıp çoğunlukla okunur; salt okunur bağlantılar WAL
+            // dosyalarına ihtiyaç duymadan bağlayabilsin
+            statement.execute("PRAGMA " + alias + ".journal_mode = DELETE");
+            statement.execute("CREATE TABLE IF NOT EXISTS " + alias + """
+                .sales (
+                    id INTEGER PRIMARY KEY,
+                    product_id INTEGER NOT NULL,
+                    product_name TEXT NOT NULL,
+                    quantity INTEGER NOT NULL,
+                    unit_price REAL NOT NULL,
+                    total_amount REAL NOT NULL,
+                    sale_date TIMESTAMP NOT NULL,
+                    profit REAL NOT NULL
+                )
+                """);
+            statement.execute("CREATE INDEX IF NOT EXISTS " + alias + ".idx_sales_sale_date ON sales(sale_date)");
+
+            // 1) Kopyalama: yalnızca arşiv dosyasına yazar, ana tabloyu kilitlemez
+            long copied;
+            long firstId;
+            long maxId;
+            long rowCount;
+            long firstSaleDate;
+            connection.setAutoCommit(false);
+            try {
+                try (PreparedStatement copy = connection.prepareStatement(
+                        "INSERT OR IGNORE INTO " + alias + ".sales (" + COLUMNS + ") SELECT " + COLUMNS
+                            + " FROM main.sales WHERE sale_date >= ? AND sale_date < ? AND id > ?")) {
+                    copy.setLong(1, start);
+                    copy.setLong(2, end);
+                    copy.setLong(3, lastId);
+                    copied = copy.executeUpdate();
+                }
+                try (ResultSet rs = statement.executeQuery(
+                        "SELECT MIN(id), MAX(id), COUNT(*), MIN(sale_date) FROM " + alias + ".sales")) {
+                    rs.next();
+                    firstId = rs.getLong(1);
+                    maxId = rs.getLong(2);
+                    rowCount = rs.getLong(3);
+                    firstSaleDate = rs.getLong(4);
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+            if (rowCount == 0) {
+                return 0;
+            }
+
+            // 2) Katalog: bu andan itibaren okuyucular ayı arşivden okur. Başka bir süreç
+            // aynı ayı taşıdıysa büyük olan last_id kalır (arşiv ikisini de içerir)
+            try (PreparedStatement catalog = connection.prepareStatement("""
+                    INSERT INTO sales_partitions
+                        (month, file, start_date, end_date, first_id, last_id, row_count, first_sale_date, archived_at)
+                    VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+                    ON CONFLICT (month) DO UPDATE SET
+                        first_id = MIN(first_id, excluded.first_id),
+                        last_id = MAX(last_id, excluded.last_id),
+                        row_count = MAX(row_count, excluded.row_count),
+                        first_sale_date = MIN(first_sale_date, excluded.first_sale_date),
+                        archived_at = excluded.archived_at
+                """)) {
+                catalog.setString(1, partition.month);
+                catalog.setString(2, partition.file);
+                catalog.setLong(3, start);
+                catalog.setLong(4, end);
+                catalog.setLong(5, firstId);
+                catalog.setLong(6, maxId);
+                catalog.setLong(7, rowCount);
+                catalog.setLong(8, firstSaleDate);
+                catalog.setTimestamp(9, new Timestamp(System.currentTimeMillis()));
+                catalog.executeUpdate();
+            }
+
+            // 3) Silme: her parça ayrı işlemdir, yazma kilidi kısa tutulur
+            try (PreparedStatement delete = connection.prepareStatement("""
+                    DELETE FROM main.sales WHERE id IN (
+                        SELECT id FROM main.sales WHERE sale_date >= ? AND sale_date < ? AND id <= ? LIMIT ?
+                    )
+                """)) {
+                delete.setLong(1, start);
+                delete.setLong(2, end);
+                delete.setLong(3, maxId);
+                delete.setInt(4, DELETE_CHUNK);
+                while (delete.executeUpdate() > 0) {
+                    // Tüm kopyalar silinene kadar
+                }
+            }
+            System.out.println("Satış arşivi: " + partition.month + " ayının " + copied + " satışı "
+                + directory.resolve(partition.file) + " dosyasına taşındı.");
+            return copied;
+        } finally {
+            conn.detach(alias);
+        }
+    }
+
+    // Kesişen arşivlenmiş aylar, tarih sırasıyla
+    private List<Partition> partitionsInRange(PooledConnection conn, long from, long to) throws SQLException {
+        return partitions(conn,
+            "WHERE end_date > ? AND start_date <= ? ORDER BY start_date", from, to);
+    }
+
+    // ID aralığıyla (alt sınır hariç) kesişen arşivlenmiş aylar, ilk ID sırasıyla
+    private List<Partition> partitionsAfterId(PooledConnection conn, long lower, long upper) throws SQLException {
+        return partitions(conn,
+            "WHERE last_id > ? AND first_id <= ? ORDER BY first_id", lower, upper);
+    }
+
+    // Her okumada çalışır; iki sabit SQL olduğundan ifade önbelleğinden gelir
+    private List<Partition> partitions(PooledConnection conn, String where, long first, long second)
+            throws SQLException {
+        List<Partition> partitions = new ArrayList<>();
+        PreparedStatement pstmt = conn.prepare(
+            "SELECT month, file, start_date, end_date, first_id, last_id FROM sales_partitions " + where);
+        pstmt.setLong(1, first);
+        pstmt.setLong(2, second);
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                partitions.add(new Partition(rs.getString(1), rs.getString(2), rs.getLong(3),
+                    rs.getLong(4), rs.getLong(5), rs.getLong(6)));
+            }
+        }
+        return partitions;
+    }
+
+    // Gerekirse artık kullanılmayan arşivler ayrılır (DETACH) ki sınır aşılmasın
+    private void attach(PooledConnection conn, List<Partition> partitions) throws SQLException {
+        Set<String> needed = new HashSet<>();
+        int missing = 0;
+        for (Partition partition : partitions) {
+            needed.add(partition.alias());
+            if (!conn.isAttached(partition.alias())) {
+                missing++;
+            }
+        }
+        if (conn.attachedCount() + missing > MAX_ATTACHED) {
+            for (String alias : conn.attachedAliases()) {
+                if (!needed.contains(alias)) {
+                    conn.detach(alias);
+                }
+            }
+        }
+        for (Partition partition : partitions) {
+            Path file = directory.resolve(partition.file);
+            if (!conn.isAttached(partition.alias()) && !Files.isRegularFile(file)) {
+                throw new SQLException("Satış arşivi dosyası bulunamadı: " + file.toAbsolutePath());
+            }
+            conn.attach(partition.alias(), file);
+        }
+    }
+
+    private static boolean isAttached(PooledConnection conn, List<Partition> partitions) {
+        for (Partition partition : partitions) {
+            if (!conn.isAttached(partition.alias())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
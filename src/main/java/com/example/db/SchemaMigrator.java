@@ -0,0 +1,246 @@
+package com.example.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Veritabanı şemasını sürümlü göçlerle (migration) günceller. Uygulanan her
+ * göç schema_version tablosuna yazılır; açılışta yalnızca henüz uygulanmamış
+ * göçler sırayla ve her biri kendi işlemi içinde çalıştırılır.
+ *
+ * Yeni bir şema değişikliği için listenin sonuna bir sonraki sürüm numarasıyla
+ * yeni bir Migration eklenir; mevcut göçler değiştirilmez.
+ */
+class SchemaMigrator {
+    // Günlük özet tablosunu satış geçmişinden üretir (göç 3 ve yeniden oluşturma komutu)
+    static final String ROLLUP_REBUILD_SQL = """
+        INSERT INTO sales_daily_rollup (day, product_id, quantity, total_amount, profit, sale_count)
+        SELECT date(sale_date / 1000, 'unixepoch', 'localtime'), product_id,
+               SUM(quantity), SUM(total_amount), SUM(profit), COUNT(*)
+        FROM sales
+        GROUP BY 1, 2
+    """;
+
+    // Yeni ürünü arama dizinine ekler (göç 6; toplu eklemede geçici olarak kaldırılır)
+    static final String FTS_INSERT_TRIGGER = """
+        CREATE TRIGGER IF NOT EXISTS products_fts_insert AFTER INSERT ON products BEGIN
+            INSERT INTO products_fts (rowid, name, supplier)
+            VALUES (new.id, new.name, new.supplier);
+        END
+    """;
+
+    private static final List<Migration> MIGRATIONS = List.of(
+        new Migration(1, "Temel tablolar",
+            """
+            CREATE TABLE IF NOT EXISTS products (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                name TEXT NOT NULL,
+                buy_price REAL NOT NULL,
+                sell_price REAL NOT NULL,
+                quantity INTEGER NOT NULL,
+                critical_level INTEGER NOT NULL,
+                barcode TEXT,
+                supplier TEXT
+            )
+            """,
+            """
+            CREATE TABLE IF NOT EXISTS sales (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                product_id INTEGER NOT NULL,
+                product_name TEXT NOT NULL,
+                quantity INTEGER NOT NULL,
+                unit_price REAL NOT NULL,
+                total_amount REAL NOT NULL,
+                sale_date TIMESTAMP NOT NULL,
+                profit REAL NOT NULL,
+                FOREIGN KEY (product_id) REFERENCES products(id)
+            )
+            """),
+
+        new Migration(2, "Satış ve ürün indeksleri",
+            // Boş barkodlar NULL yapılır; benzersiz indeks NULL değerleri çakışma saymaz
+            "UPDATE products SET barcode = NULL WHERE trim(barcode) = ''",
+            // Aynı barkodlu ürünlerden en küçük ID'li olanınki korunur, diğerlerinin
+            // barkodu kaldırılır ve barcode_conflicts tablosuna kaydedilir
+            """
+            CREATE TABLE IF NOT EXISTS barcode_conflicts (
+                product_id INTEGER PRIMARY KEY,
+                barcode TEXT NOT NULL,
+                kept_product_id INTEGER NOT NULL
+            )
+            """,
+            """
+            INSERT OR IGNORE INTO barcode_conflicts (product_id, barcode, kept_product_id)
+            SELECT p.id, p.barcode, k.kept_id
+            FROM products p
+            JOIN (SELECT barcode, MIN(id) AS kept_id FROM products
+                  WHERE barcode IS NOT NULL GROUP BY barcode HAVING COUNT(*) > 1) k
+                ON k.barcode = p.barcode
+            WHERE p.id <> k.kept_id
+            """,
+            "UPDATE products SET barcode = NULL WHERE id IN (SELECT product_id FROM barcode_conflicts)",
+            "CREATE UNIQUE INDEX IF NOT EXISTS idx_products_barcode ON products(barcode)",
+            "CREATE INDEX IF NOT EXISTS idx_sales_sale_date ON sales(sale_date)",
+            "CREATE INDEX IF NOT EXISTS idx_sales_product_id ON sales(product_id)",
+            // getLowStockProducts için kısmi indeks
+            """
+            CREATE INDEX IF NOT EXISTS idx_products_low_stock
+                ON products(id) WHERE quantity <= critical_level
+            """),
+
+        new Migration(3, "Günlük satış özet tablosu",
+            // Gün anahtarı yerel saate göre hesaplanır; sale_date milisaniye olarak saklanır
+            """
+            CREATE TABLE IF NOT EXISTS sales_daily_rollup (
+                day TEXT NOT NULL,
+                product_id INTEGER NOT NULL,
+                quantity INTEGER NOT NULL,
+                total_amount REAL NOT NULL,
+                profit REAL NOT NULL,
+                sale_count INTEGER NOT NULL,
+                PRIMARY KEY (day, product_id)
+            ) WITHOUT ROWID
+            """,
+            ROLLUP_REBUILD_SQL),
+
+        new Migration(4, "Ürünlerde iyimser kilitleme sürümü",
+            "ALTER TABLE products ADD COLUMN version INTEGER NOT NULL DEFAULT 0"),
+
+        new Migration(5, "Satış günlüğü boşaltma konumu",
+            """
+            CREATE TABLE IF NOT EXISTS sale_journal_state (
+                id INTEGER PRIMARY KEY CHECK (id = 1),
+                generation INTEGER NOT NULL,
+                flushed_offset INTEGER NOT NULL
+            )
+            """),
+
+        new Migration(6, "Ürün adı ve tedarikçi için tam metin arama (FTS5)",
+            // İçerik products tablosundan okunur; dizin tetikleyicilerle eşitlenir.
+            // Türkçe karakterler aksansız eşlenir (ş -> s, ç -> c, ...), önekler dizinlenir
+            """
+            CREATE VIRTUAL TABLE IF NOT EXISTS products_fts USING fts5(
+                name, supplier,
+                content = 'products', content_rowid = 'id',
+                tokenize = 'unicode61 remove_diacritics 2',
+                prefix = '1 2 3'
+            )
+            """,
+            FTS_INSERT_TRIGGER,
+            """
+            CREATE TRIGGER IF NOT EXISTS products_fts_delete AFTER DELETE ON products BEGIN
+                INSERT INTO products_fts (products_fts, rowid, name, supplier)
+                VALUES ('delete', old.id, old.name, old.supplier);
+            END
+            """,
+            // Stok düşümleri yalnızca quantity'yi değiştirir, dizine dokunmaz
+            """
+            CREATE TRIGGER IF NOT EXISTS products_fts_update AFTER UPDATE OF name, supplier ON products BEGIN
+                INSERT INTO products_fts (products_fts, rowid, name, supplier)
+                VALUES ('delete', old.id, old.name, old.supplier);
+                INSERT INTO products_fts (rowid, name, supplier)
+                VALUES (new.id, new.name, new.supplier);
+            END
+            """,
+            "INSERT INTO products_fts (products_fts) VALUES ('rebuild')"),
+        new Migration(7, "Aylık satış arşivi kataloğu",
+            // Arşivlenmiş her ay: tarih aralığı [start_date, end_date) ve arşive
+            // taşınmış en büyük satış ID'si (last_id); bkz. SalesArchive
+            """
+            CREATE TABLE IF NOT EXISTS sales_partitions (
+                month TEXT PRIMARY KEY,
+                file TEXT NOT NULL,
+                start_date INTEGER NOT NULL,
+                end_date INTEGER NOT NULL,
+                first_id INTEGER NOT NULL,
+                last_id INTEGER NOT NULL,
+                row_count INTEGER NOT NULL,
+                first_sale_date INTEGER NOT NULL,
+                archived_at TIMESTAMP NOT NULL
+            )
+            """)
+    );
+
+    void migrate(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                CREATE TABLE IF NOT EXISTS schema_version (
+                    version INTEGER PRIMARY KEY,
+                    description TEXT NOT NULL,
+                    applied_at TIMESTAMP NOT NULL
+                )
+            """);
+        }
+
+        int current = currentVersion(connection);
+        for (Migration migration : MIGRATIONS) {
+            if (migration.version > current) {
+                apply(connection, migration);
+            }
+        }
+        if (current < 2) {
+            reportBarcodeConflicts(connection);
+        }
+    }
+
+    // Göç 2'nin kaldırdığı yinelenen barkodlar; ürünlerin elle düzeltilmesi için loglanır
+    private void reportBarcodeConflicts(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                 "SELECT product_id, barcode, kept_product_id FROM barcode_conflicts ORDER BY product_id")) {
+            while (rs.next()) {
+                System.err.println("Yinelenen barkod kaldırıldı: ürün ID " + rs.getInt(1) + ", barkod "
+                    + rs.getString(2) + " (ürün ID " + rs.getInt(3) + " üzerinde kaldı)");
+            }
+        }
+    }
+
+    int currentVersion(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT MAX(version) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private void apply(Connection connection, Migration migration) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : migration.statements) {
+                statement.execute(sql);
+            }
+
+            try (PreparedStatement pstmt = connection.prepareStatement(
+                    "INSERT INTO schema_version (version, description, applied_at) VALUES (?, ?, ?)")) {
+                pstmt.setInt(1, migration.version);
+                pstmt.setString(2, migration.description);
+                pstmt.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
+                pstmt.executeUpdate();
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw new SQLException("Şema göçü uygulanamadı (sürüm " + migration.version
+                + " - " + migration.description + "): " + e.getMessage(), e);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static final class Migration {
+        private final int version;
+        private final String description;
+        private final List<String> statements;
+
+        private Migration(int version, String description, String... statements) {
+            this.version = version;
+            this.description = description;
+            this.statements = List.of(statements);
+        }
+    }
+}
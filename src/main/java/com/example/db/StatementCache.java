@@ -0,0 +1,79 @@
+package com.example.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tek bir bağlantıya ait hazırlanmış ifadeleri (PreparedStatement) saklar.
+ * Aynı SQL ikinci kez istendiğinde yeniden derlenmez, önbellekteki ifade
+ * parametreleri temizlenerek geri verilir. Kapasite dolunca en az kullanılan
+ * ifade kapatılır (LRU).
+ *
+ * Bağlantı havuzundan alınan bir bağlantı aynı anda tek bir iş parçacığı
+ * tarafından kullanıldığından bu sınıf senkronize değildir.
+ */
+class StatementCache {
+    private final Connection connection;
+    private final StatementCacheStats stats;
+    private final DatabaseMetrics metrics;
+    private final Map<String, PreparedStatement> statements;
+
+    StatementCache(Connection connection, int capacity, StatementCacheStats stats, DatabaseMetrics metrics) {
+        this.connection = connection;
+        this.stats = stats;
+        this.metrics = metrics;
+        this.statements = new LinkedHashMap<>(capacity, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > capacity) {
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement statement = statements.get(sql);
+        if (statement != null && !statement.isClosed()) {
+            stats.recordHit();
+            statement.clearParameters();
+            return statement;
+        }
+
+        stats.recordMiss();
+        // Yavaş sorgu kaydı için sarılır; önbellekte sarılmış hali tutulur
+        statement = metrics.instrument(sql, connection.prepareStatement(sql));
+        statements.put(sql, statement);
+        return statement;
+    }
+
+    // Bir kez çalıştırılacak ifadeler (ör. SQL'i her seferinde değişenler) önbelleğe
+    // alınmaz; sık kullanılanları önbellekten atmasınlar. Çağıran kapatır
+    PreparedStatement prepareUncached(String sql) throws SQLException {
+        return metrics.instrument(sql, connection.prepareStatement(sql));
+    }
+
+    int size() {
+        return statements.size();
+    }
+
+    void closeAll() {
+        for (PreparedStatement statement : statements.values()) {
+            closeQuietly(statement);
+        }
+        statements.clear();
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            System.err.println("Hazırlanmış ifade kapatılamadı: " + e.getMessage());
+        }
+    }
+}
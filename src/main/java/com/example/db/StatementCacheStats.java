@@ -0,0 +1,44 @@
+package com.example.db;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Havuzdaki tüm bağlantıların ifade önbelleği için isabet/ıskalama sayaçları.
+ */
+public class StatementCacheStats {
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    void recordHit() {
+        hits.increment();
+    }
+
+    void recordMiss() {
+        misses.increment();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public double getHitRatio() {
+        long h = getHits();
+        long total = h + getMisses();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    public void reset() {
+        hits.reset();
+        misses.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("İfade önbelleği: %d isabet, %d ıskalama (%%%.1f)",
+            getHits(), getMisses(), getHitRatio() * 100);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.db;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Veritabanı bağlantı ve SQLite PRAGMA ayarları. Varsayılanlar sınıf yolundaki
+ * database.properties dosyasından okunur; çalışma dizinindeki aynı adlı dosya
+ * ya da stock.db.config sistem özelliğiyle verilen dosya bunları ezer.
+ */
+public class StorageProfile {
+    public static final String CONFIG_PROPERTY = "stock.db.config";
+    private static final String FILE_NAME = "database.properties";
+    private static final String PRAGMA_PREFIX = "sqlite.";
+
+    private final Properties properties;
+
+    public StorageProfile(Properties properties) {
+        this.properties = properties;
+    }
+
+    public static StorageProfile load() {
+        Properties properties = new Properties();
+        try (InputStream in = StorageProfile.class.getResourceAsStream("/" + FILE_NAME)) {
+            if (in != null) {
+                try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                    properties.load(reader);
+                }
+            }
+
+            Path override = Paths.get(System.getProperty(CONFIG_PROPERTY, FILE_NAME));
+            if (Files.isRegularFile(override)) {
+                try (Reader reader = Files.newBufferedReader(override, StandardCharsets.UTF_8)) {
+                    properties.load(reader);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Veritabanı ayarları okunamadı, varsayılanlar kullanılacak: " + e.getMessage());
+        }
+        return new StorageProfile(properties);
+    }
+
+    public String getUrl() {
+        return properties.getProperty("db.url", "jdbc:sqlite:stock_management.db");
+    }
+
+    public int getWritePoolSize() {
+        return getInt("db.pool.write.size", 2);
+    }
+
+    public int getReadPoolSize() {
+        return getInt("db.pool.read.size", 4);
+    }
+
+    public int getStatementCacheSize() {
+        return getInt("db.statement.cache.size", 64);
+    }
+
+    public int getBusyTimeoutMs() {
+        return getInt("db.busy.timeout.ms", 5000);
+    }
+
+    public int getAcquireTimeoutMs() {
+        return getInt("db.pool.acquire.timeout.ms", 10_000);
+    }
+
+    public String getProperty(String key, String defaultValue) {
+        return properties.getProperty(key, defaultValue);
+    }
+
+    public int getInt(String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Geçersiz ayar değeri " + key + "=" + value + ", varsayılan kullanılıyor.");
+            return defaultValue;
+        }
+    }
+
+    public Map<String, String> getPragmas() {
+        Map<String, String> pragmas = new LinkedHashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(PRAGMA_PREFIX)) {
+                pragmas.put(key.substring(PRAGMA_PREFIX.length()), properties.getProperty(key).trim());
+            }
+        }
+        return pragmas;
+    }
+
+    void applyPragmas(Connection connection, boolean readOnly) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (Map.Entry<String, String> pragma : getPragmas().entrySet()) {
+                // journal_mode veritabanı dosyasına yazılır; salt okunur bağlantı değiştiremez
+                if (readOnly && pragma.getKey().equals("journal_mode")) {
+                    continue;
+                }
+                if (!pragma.getKey().matches("[a-z_]+") || !pragma.getValue().matches("[A-Za-z0-9_-]+")) {
+                    throw new SQLException("Geçersiz PRAGMA ayarı: " + pragma.getKey() + "=" + pragma.getValue());
+                }
+                statement.execute("PRAGMA " + pragma.getKey() + " = " + pragma.getValue());
+            }
+        }
+    }
+}
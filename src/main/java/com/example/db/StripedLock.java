@@ -0,0 +1,48 @@
+package com.example.db;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Ürün ID'sine göre bölümlenmiş kilitler. Aynı ürüne yapılan satışlar aynı
+ * süreç içinde sıraya girer, farklı ürünlerin satışları (farklı bölümlere
+ * düştükleri sürece) birbirini beklemez.
+ */
+class StripedLock {
+    private final ReentrantLock[] stripes;
+
+    StripedLock(int stripeCount) {
+        stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    private int stripeOf(int productId) {
+        return Math.floorMod(Integer.hashCode(productId) * 0x9E3779B9, stripes.length);
+    }
+
+    /**
+     * Verilen ürünlerin bölümlerini kilitler ve kilitlenen bölüm numaralarını
+     * döner. Kilitlenme (deadlock) olmaması için bölümler her zaman artan
+     * sırada alınır.
+     */
+    int[] lockAll(int count, IntUnaryOperator productIdAt) {
+        int[] indexes = new int[count];
+        for (int i = 0; i < count; i++) {
+            indexes[i] = stripeOf(productIdAt.applyAsInt(i));
+        }
+        int[] distinct = Arrays.stream(indexes).sorted().distinct().toArray();
+        for (int stripe : distinct) {
+            stripes[stripe].lock();
+        }
+        return distinct;
+    }
+
+    void unlockAll(int[] lockedStripes) {
+        for (int i = lockedStripes.length - 1; i >= 0; i--) {
+            stripes[lockedStripes[i]].unlock();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.model;
+
+import java.time.LocalDate;
+
+public class DailySales {
+    private LocalDate day;
+    private int quantity;
+    private double totalAmount;
+    private double profit;
+    private int saleCount;
+
+    public DailySales() {}
+
+    public DailySales(LocalDate day, int quantity, double totalAmount, double profit, int saleCount) {
+        this.day = day;
+        this.quantity = quantity;
+        this.totalAmount = totalAmount;
+        this.profit = profit;
+        this.saleCount = saleCount;
+    }
+
+    // Getter ve Setter metodları
+    public LocalDate getDay() { return day; }
+    public void setDay(LocalDate day) { this.day = day; }
+
+    public int getQuantity() { return quantity; }
+    public void setQuantity(int quantity) { this.quantity = quantity; }
+
+    public double getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(double totalAmount) { this.totalAmount = totalAmount; }
+
+    public double getProfit() { return profit; }
+    public void setProfit(double profit) { this.profit = profit; }
+
+    public int getSaleCount() { return saleCount; }
+    public void setSaleCount(int saleCount) { this.saleCount = saleCount; }
+}
@@ -9,6 +9,8 @@ public class Product {
     private int criticalLevel;
     private String barcode;
     private String supplier;
+    // İyimser kilitleme için satır sürümü; her güncellemede veritabanında artar
+    private int version;
 
     public Product() {}
 
@@ -45,6 +47,9 @@ public class Product {
     public String getSupplier() { return supplier; }
     public void setSupplier(String supplier) { this.supplier = supplier; }
     
+    public int getVersion() { return version; }
+    public void setVersion(int version) { this.version = version; }
+    
     public double getTotalValue() {
         return buyPrice * quantity;
     }
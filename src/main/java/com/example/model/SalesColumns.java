@@ -0,0 +1,142 @@
+package com.example.model;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Satışların sütun bazlı (her alan ayrı bir ilkel dizi) bellek içi kopyası.
+ * Satış grafiğinin günlük toplamaları için kullanılır: satır başına nesne,
+ * kutulama (boxing) ya da tarih metni üretilmez.
+ *
+ * Gün, yerel saate göre epoch günüdür (1970-01-01'den bu yana gün sayısı).
+ */
+public class SalesColumns {
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private long[] epochDays;
+    private int[] quantities;
+    private double[] amounts;
+    private double[] profits;
+    private int size;
+    private long minDay = Long.MAX_VALUE;
+    private long maxDay = Long.MIN_VALUE;
+
+    public SalesColumns() {
+        this(1024);
+    }
+
+    public SalesColumns(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 16);
+        epochDays = new long[capacity];
+        quantities = new int[capacity];
+        amounts = new double[capacity];
+        profits = new double[capacity];
+    }
+
+    // Satış listesinden sütunlar oluşturur; gün sistem saat dilimine göre hesaplanır
+    public static SalesColumns of(List<Sale> sales) {
+        SalesColumns columns = new SalesColumns(sales.size());
+        ZoneRules rules = ZoneId.systemDefault().getRules();
+        for (Sale sale : sales) {
+            long millis = sale.getSaleDate().getTime();
+            long offsetMillis = rules.getOffset(Instant.ofEpochMilli(millis)).getTotalSeconds() * 1000L;
+            columns.add(Math.floorDiv(millis + offsetMillis, MILLIS_PER_DAY), sale.getQuantity(),
+                sale.getTotalAmount(), sale.getProfit());
+        }
+        return columns;
+    }
+
+    public void add(long epochDay, int quantity, double amount, double profit) {
+        if (size == epochDays.length) {
+            grow();
+        }
+        epochDays[size] = epochDay;
+        quantities[size] = quantity;
+        amounts[size] = amount;
+        profits[size] = profit;
+        size++;
+
+        minDay = Math.min(minDay, epochDay);
+        maxDay = Math.max(maxDay, epochDay);
+    }
+
+    private void grow() {
+        int capacity = epochDays.length * 2;
+        epochDays = Arrays.copyOf(epochDays, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        profits = Arrays.copyOf(profits, capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // En erken satış günü; boşsa 0
+    public long getFirstDay() {
+        return size == 0 ? 0 : minDay;
+    }
+
+    // İlk ve son satış günü dahil gün sayısı (aradaki satışsız günler de sayılır)
+    public int getDayCount() {
+        return size == 0 ? 0 : (int) (maxDay - minDay + 1);
+    }
+
+    // Toplama çekirdekleri: sonuç, çağıranın verdiği dizide biriktirilir; döngü
+    // içinde bellek ayrılmaz. Dizi sıfırlanmaz; sıfırlamak çağıranın işidir. Gün
+    // dizileri her örneğin kendi getFirstDay() değerine göredir; yalnızca ilk günü
+    // aynı olan örnekler aynı dizide toplanabilir.
+
+    // out[gün - getFirstDay()] += tutar; out en az getDayCount() uzunluğunda olmalıdır
+    public void sumAmountByDay(double[] out) {
+        sumByDay(amounts, out);
+    }
+
+    public void sumProfitByDay(double[] out) {
+        sumByDay(profits, out);
+    }
+
+    public void sumQuantityByDay(long[] out) {
+        long firstDay = getFirstDay();
+        for (int i = 0; i < size; i++) {
+            out[(int) (epochDays[i] - firstDay)] += quantities[i];
+        }
+    }
+
+    private void sumByDay(double[] values, double[] out) {
+        long firstDay = getFirstDay();
+        for (int i = 0; i < size; i++) {
+            out[(int) (epochDays[i] - firstDay)] += values[i];
+        }
+    }
+
+    // Kolaylık metotları: sonuç dizisini ayırıp çekirdeği çalıştırır
+    public double[] amountByDay() {
+        double[] out = new double[getDayCount()];
+        sumAmountByDay(out);
+        return out;
+    }
+
+    public double totalAmount() {
+        double total = 0;
+        for (int i = 0; i < size; i++) {
+            total += amounts[i];
+        }
+        return total;
+    }
+
+    public double totalProfit() {
+        double total = 0;
+        for (int i = 0; i < size; i++) {
+            total += profits[i];
+        }
+        return total;
+    }
+}
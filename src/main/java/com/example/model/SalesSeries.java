@@ -0,0 +1,37 @@
+package com.example.model;
+
+/**
+ * Zamana göre sıralı satış tutarları: her nokta bir zaman aralığının
+ * başlangıcı (epoch milisaniye) ve o aralıktaki toplam satış tutarıdır.
+ */
+public class SalesSeries {
+    private final long[] times;
+    private final double[] amounts;
+    private final long bucketMillis;
+
+    public SalesSeries(long[] times, double[] amounts, long bucketMillis) {
+        if (times.length != amounts.length) {
+            throw new IllegalArgumentException("Zaman ve tutar dizileri aynı uzunlukta olmalı.");
+        }
+        this.times = times;
+        this.amounts = amounts;
+        this.bucketMillis = bucketMillis;
+    }
+
+    public int size() {
+        return times.length;
+    }
+
+    public long getTime(int index) {
+        return times[index];
+    }
+
+    public double getAmount(int index) {
+        return amounts[index];
+    }
+
+    // Noktaların temsil ettiği aralık uzunluğu (ör. saatlik seride 3.600.000)
+    public long getBucketMillis() {
+        return bucketMillis;
+    }
+}
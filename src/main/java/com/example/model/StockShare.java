@@ -0,0 +1,28 @@
+package com.example.model;
+
+/**
+ * Stok değeri dağılımında bir dilim: bir ürün, bir tedarikçi ya da ilk N
+ * dışında kalanların toplandığı "Diğer" dilimi.
+ */
+public class StockShare {
+    private final String label;
+    private final double value;
+    private final int productCount;
+    private final boolean other;
+
+    public StockShare(String label, double value, int productCount, boolean other) {
+        this.label = label;
+        this.value = value;
+        this.productCount = productCount;
+        this.other = other;
+    }
+
+    public String getLabel() { return label; }
+
+    // Alış fiyatı x stok miktarı toplamı
+    public double getValue() { return value; }
+
+    public int getProductCount() { return productCount; }
+
+    public boolean isOther() { return other; }
+}
@@ -0,0 +1,36 @@
+package com.example.model;
+
+/**
+ * Bir tedarikçinin ürün sayısı, stok değeri ve verilen tarih aralığındaki
+ * satış toplamları.
+ */
+public class SupplierSummary {
+    private final String supplier;
+    private final int productCount;
+    private final double stockValue;
+    private final int soldQuantity;
+    private final double salesAmount;
+    private final double profit;
+
+    public SupplierSummary(String supplier, int productCount, double stockValue,
+                           int soldQuantity, double salesAmount, double profit) {
+        this.supplier = supplier;
+        this.productCount = productCount;
+        this.stockValue = stockValue;
+        this.soldQuantity = soldQuantity;
+        this.salesAmount = salesAmount;
+        this.profit = profit;
+    }
+
+    public String getSupplier() { return supplier; }
+
+    public int getProductCount() { return productCount; }
+
+    public double getStockValue() { return stockValue; }
+
+    public int getSoldQuantity() { return soldQuantity; }
+
+    public double getSalesAmount() { return salesAmount; }
+
+    public double getProfit() { return profit; }
+}
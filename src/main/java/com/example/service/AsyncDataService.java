@@ -0,0 +1,110 @@
+package com.example.service;
+
+import com.example.db.DatabaseManager;
+import com.example.util.ReportGenerator;
+
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DatabaseManager üzerinde asenkron erişim katmanı. Tüm veritabanı ve rapor
+ * işleri arayüz iş parçacığı (EDT) dışında, yönetilen bir yürütücüde çalışır
+ * ve CompletableFuture döner. Sonuçların EDT'ye taşınması çağırana aittir
+ * (ör. thenAcceptAsync(..., SwingUtilities::invokeLater)).
+ */
+public class AsyncDataService implements AutoCloseable {
+
+    @FunctionalInterface
+    public interface SqlTask<T> {
+        T call() throws SQLException;
+    }
+
+    @FunctionalInterface
+    public interface SqlAction {
+        void run() throws SQLException;
+    }
+
+    private final DatabaseManager dbManager;
+    private final ExecutorService executor;
+
+    public AsyncDataService(DatabaseManager dbManager) {
+        this(dbManager, newWorkerExecutor("db-worker"));
+    }
+
+    public AsyncDataService(DatabaseManager dbManager, ExecutorService executor) {
+        this.dbManager = dbManager;
+        this.executor = executor;
+    }
+
+    public DatabaseManager getDatabaseManager() {
+        return dbManager;
+    }
+
+    public <T> CompletableFuture<T> supply(SqlTask<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return task.call();
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    public CompletableFuture<Void> run(SqlAction action) {
+        return supply(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    // Satış raporunu arka planda akış modunda üretir; ilerleme bildirilir ve iptal edilebilir
+    public ReportJob streamSalesReport(Date startDate, Date endDate, String filePath,
+                                       ReportJob.Listener listener) {
+        ReportJob job = new ReportJob(listener);
+        job.attach(run(() ->
+            ReportGenerator.streamSalesReport(dbManager, startDate, endDate, filePath, job)));
+        return job;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Java 21+ ile çalışıyorsa her iş için sanal iş parçacığı açan yürütücü,
+     * aksi halde daemon iş parçacıklarından oluşan önbellekli havuz döner.
+     * Eşzamanlılık zaten bağlantı havuzu boyutuyla sınırlandığından havuz
+     * boyutuna ayrıca sınır konmaz.
+     */
+    public static ExecutorService newWorkerExecutor(String namePrefix) {
+        try {
+            return (ExecutorService) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor")
+                .invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger counter = new AtomicInteger();
+            ThreadFactory factory = runnable -> {
+                Thread thread = new Thread(runnable, namePrefix + "-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+            return Executors.newCachedThreadPool(factory);
+        }
+    }
+}
@@ -0,0 +1,388 @@
+package com.example.service;
+
+import com.example.db.DatabaseManager;
+import com.example.db.InsufficientStockException;
+import com.example.db.StorageProfile;
+import com.example.model.Product;
+import com.example.model.Sale;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Kasa terminalleri için gömülü HTTP/JSON servisi (JDK HttpServer). Her istek
+ * AsyncDataService.newWorkerExecutor ile açılan iş parçacığında (Java 21+
+ * sanal iş parçacığı) işlenir; satışlar SaleBatcher ile toplu işlemlerde yazılır.
+ *
+ *   GET  /api/products/barcode/{barcode}   ürün (404: bulunamadı)
+ *   GET  /api/products/low-stock           kritik seviyedeki ürünler
+ *   POST /api/sales                        {"barcode": "...", "quantity": 2}
+ *                                          ya da {"product_id": 5, "quantity": 2}
+ *                                          (201; 404: ürün yok, 409: stok yetersiz)
+ *
+ * Ayarlar database.properties'teki api.* anahtarlarındadır.
+ */
+public class PosApiServer implements AutoCloseable {
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+
+    private final DatabaseManager dbManager;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final SaleBatcher saleBatcher;
+
+    // İstek doğrulama hatası (400)
+    private static class BadRequestException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        BadRequestException(String message) {
+            super(message);
+        }
+    }
+
+    public PosApiServer(DatabaseManager dbManager, String host, int port, int maxSaleBatch) throws IOException {
+        this.dbManager = dbManager;
+        this.saleBatcher = new SaleBatcher(dbManager, maxSaleBatch);
+        this.executor = AsyncDataService.newWorkerExecutor("pos-http");
+        this.server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        server.setExecutor(executor);
+        server.createContext("/api/products/barcode/", exchange -> handle(exchange, "GET", this::productByBarcode));
+        server.createContext("/api/products/low-stock", exchange -> handle(exchange, "GET", this::lowStock));
+        server.createContext("/api/sales", exchange -> handle(exchange, "POST", this::postSale));
+    }
+
+    // İstekler hemen kabul edilir; barkod indeksi arka planda yüklenir
+    public void start() {
+        server.start();
+        executor.execute(this::preloadBarcodeIndex);
+    }
+
+    private void preloadBarcodeIndex() {
+        try {
+            dbManager.preloadBarcodeIndex();
+        } catch (SQLException e) {
+            System.err.println("Barkod indeksi yüklenemedi: " + e.getMessage());
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // Yeni istek alınmaz, bekleyen satışlar yazılır
+    @Override
+    public void close() {
+        server.stop(1);
+        saleBatcher.close();
+        executor.shutdown();
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Response handle(HttpExchange exchange) throws BadRequestException, SQLException;
+    }
+
+    private static final class Response {
+        final int status;
+        final String json;
+
+        Response(int status, String json) {
+            this.status = status;
+            this.json = json;
+        }
+    }
+
+    private void handle(HttpExchange exchange, String method, Handler handler) throws IOException {
+        Response response;
+        try {
+            if (!exchange.getRequestMethod().equals(method)) {
+                response = error(405, "Desteklenmeyen metot: " + exchange.getRequestMethod());
+            } else {
+                response = handler.handle(exchange);
+            }
+        } catch (BadRequestException e) {
+            response = error(400, e.getMessage());
+        } catch (InsufficientStockException e) {
+            response = error(409, e.getMessage());
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("API isteği başarısız (" + exchange.getRequestURI() + "): " + e.getMessage());
+            response = error(500, e.getMessage());
+        }
+
+        byte[] body = response.json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(response.status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private Response productByBarcode(HttpExchange exchange) throws BadRequestException, SQLException {
+        String path = exchange.getRequestURI().getRawPath();
+        String barcode = URLDecoder.decode(path.substring("/api/products/barcode/".length()), StandardCharsets.UTF_8);
+        if (barcode.isEmpty()) {
+            throw new BadRequestException("Barkod gerekli.");
+        }
+        Product product = dbManager.findByBarcode(barcode);
+        return product == null
+            ? error(404, "Barkod bulunamadı: " + barcode)
+            : new Response(200, productJson(new StringBuilder(), product).toString());
+    }
+
+    private Response lowStock(HttpExchange exchange) throws SQLException {
+        List<Product> products = dbManager.getLowStockProducts();
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < products.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            productJson(json, products.get(i));
+        }
+        return new Response(200, json.append(']').toString());
+    }
+
+    private Response postSale(HttpExchange exchange) throws BadRequestException, SQLException {
+        Map<String, String> request = parseObject(readBody(exchange));
+        int quantity = intField(request, "quantity");
+        if (quantity <= 0) {
+            throw new BadRequestException("quantity pozitif olmalı.");
+        }
+
+        Product product;
+        if (request.containsKey("barcode")) {
+            product = dbManager.findByBarcode(request.get("barcode"));
+        } else if (request.containsKey("product_id")) {
+            product = dbManager.getProduct(intField(request, "product_id"));
+        } else {
+            throw new BadRequestException("barcode ya da product_id gerekli.");
+        }
+        if (product == null) {
+            return error(404, "Ürün bulunamadı.");
+        }
+
+        // Fiyatlar istek anındaki ürün kaydından alınır; stok kontrolü yazarken yapılır
+        Sale sale = new Sale(product.getId(), product.getName(), quantity,
+            product.getSellPrice(), product.getBuyPrice());
+        try {
+            saleBatcher.submit(sale).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Satış beklenirken kesildi.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new SQLException(e.getCause().getMessage(), e.getCause());
+        }
+
+        StringBuilder json = new StringBuilder("{");
+        appendField(json, "product_id").append(sale.getProductId()).append(',');
+        appendField(json, "product_name");
+        appendString(json, sale.getProductName()).append(',');
+        appendField(json, "quantity").append(sale.getQuantity()).append(',');
+        appendField(json, "unit_price").append(sale.getUnitPrice()).append(',');
+        appendField(json, "total_amount").append(sale.getTotalAmount());
+        return new Response(201, json.append('}').toString());
+    }
+
+    private static String readBody(HttpExchange exchange) throws BadRequestException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (body.length > MAX_BODY_BYTES) {
+                throw new BadRequestException("İstek gövdesi çok büyük.");
+            }
+            return new String(body, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new BadRequestException("İstek gövdesi okunamadı: " + e.getMessage());
+        }
+    }
+
+    private static int intField(Map<String, String> request, String name) throws BadRequestException {
+        String value = request.get(name);
+        if (value == null) {
+            throw new BadRequestException(name + " gerekli.");
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException(name + " tam sayı olmalı: " + value);
+        }
+    }
+
+    private static Response error(int status, String message) {
+        StringBuilder json = new StringBuilder("{");
+        appendField(json, "error");
+        appendString(json, message == null ? "" : message);
+        return new Response(status, json.append('}').toString());
+    }
+
+    private static StringBuilder productJson(StringBuilder json, Product product) {
+        json.append('{');
+        appendField(json, "id").append(product.getId()).append(',');
+        appendField(json, "name");
+        appendString(json, product.getName()).append(',');
+        appendField(json, "barcode");
+        appendString(json, product.getBarcode()).append(',');
+        appendField(json, "supplier");
+        appendString(json, product.getSupplier()).append(',');
+        appendField(json, "sell_price").append(product.getSellPrice()).append(',');
+        appendField(json, "quantity").append(product.getQuantity()).append(',');
+        appendField(json, "critical_level").append(product.getCriticalLevel());
+        return json.append('}');
+    }
+
+    private static StringBuilder appendField(StringBuilder json, String name) {
+        return json.append('"').append(name).append("\":");
+    }
+
+    private static StringBuilder appendString(StringBuilder json, String value) {
+        if (value == null) {
+            return json.append("null");
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        return json.append('"');
+    }
+
+    // Yalnızca düz nesneler: {"ad": "metin" | sayı | true | false | null, ...}.
+    // Değerler metin olarak döner; null değerli alanlar yok sayılır
+    private static Map<String, String> parseObject(String text) throws BadRequestException {
+        JsonCursor cursor = new JsonCursor(text);
+        Map<String, String> fields = new HashMap<>();
+        cursor.expect('{');
+        if (!cursor.consume('}')) {
+            do {
+                String name = cursor.readString();
+                cursor.expect(':');
+                String value = cursor.peek() == '"' ? cursor.readString() : cursor.readLiteral();
+                if (!value.equals("null")) {
+                    fields.put(name, value);
+                }
+            } while (cursor.consume(','));
+            cursor.expect('}');
+        }
+        if (cursor.peek() != 0) {
+            throw new BadRequestException("Geçersiz JSON: nesneden sonra fazladan karakter.");
+        }
+        return fields;
+    }
+
+    private static final class JsonCursor {
+        private final String text;
+        private int pos;
+
+        JsonCursor(String text) {
+            this.text = text;
+        }
+
+        // Boşlukları atlar; metin bittiyse 0
+        char peek() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+            return pos < text.length() ? text.charAt(pos) : 0;
+        }
+
+        boolean consume(char c) {
+            if (peek() == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        void expect(char c) throws BadRequestException {
+            if (!consume(c)) {
+                throw new BadRequestException("Geçersiz JSON: '" + c + "' bekleniyordu (konum " + pos + ").");
+            }
+        }
+
+        String readString() throws BadRequestException {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (pos < text.length()) {
+                char c = text.charAt(pos++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                if (pos >= text.length()) {
+                    break;
+                }
+                char escaped = text.charAt(pos++);
+                switch (escaped) {
+                    case 'n' -> value.append('\n');
+                    case 't' -> value.append('\t');
+                    case 'r' -> value.append('\r');
+                    case 'b' -> value.append('\b');
+                    case 'f' -> value.append('\f');
+                    case 'u' -> {
+                        if (pos + 4 > text.length()) {
+                            throw new BadRequestException("Geçersiz JSON: eksik \\u kaçışı.");
+                        }
+                        try {
+                            value.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw new BadRequestException("Geçersiz JSON: hatalı \\u kaçışı.");
+                        }
+                        pos += 4;
+                    }
+                    default -> value.append(escaped);
+                }
+            }
+            throw new BadRequestException("Geçersiz JSON: kapanmamış metin.");
+        }
+
+        // Sayı, true, false ya da null
+        String readLiteral() throws BadRequestException {
+            int start = pos;
+            while (pos < text.length() && "{}[],:\"".indexOf(text.charAt(pos)) < 0
+                    && !Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+            if (start == pos) {
+                throw new BadRequestException("Geçersiz JSON: değer bekleniyordu (konum " + pos + ").");
+            }
+            return text.substring(start, pos);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        DatabaseManager dbManager = DatabaseManager.getInstance();
+        dbManager.getMetrics().registerMBean();
+        StorageProfile profile = dbManager.getStorageProfile();
+        PosApiServer server = new PosApiServer(dbManager,
+            profile.getProperty("api.host", "127.0.0.1"),
+            profile.getInt("api.port", 8085),
+            profile.getInt("api.sale.batch.max", 500));
+        // Tek kanca: önce sunucu durur ve kuyruktaki satışlar yazılır, sonra bağlantılar kapanır
+        dbManager.addShutdownTask(server::close);
+        server.start();
+        System.out.println("POS API dinleniyor: http://" + profile.getProperty("api.host", "127.0.0.1")
+            + ":" + server.getPort() + "/api");
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.service;
+
+import com.example.util.ReportProgress;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Arka planda çalışan bir rapor işi. İlerleme dinleyiciye iletilir; cancel()
+ * çağrıldığında rapor bir sonraki kontrol noktasında durur ve dosya yazılmaz.
+ */
+public class ReportJob implements ReportProgress {
+
+    @FunctionalInterface
+    public interface Listener {
+        // Rapor iş parçacığından çağrılır
+        void onProgress(long done, long total);
+    }
+
+    private final Listener listener;
+    private volatile boolean cancelled;
+    private CompletableFuture<Void> future;
+
+    ReportJob(Listener listener) {
+        this.listener = listener;
+    }
+
+    void attach(CompletableFuture<Void> future) {
+        this.future = future;
+    }
+
+    public CompletableFuture<Void> getFuture() {
+        return future;
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public void onProgress(long done, long total) {
+        if (listener != null) {
+            listener.onProgress(done, total);
+        }
+    }
+}
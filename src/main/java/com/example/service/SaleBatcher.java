@@ -0,0 +1,126 @@
+package com.example.service;
+
+import com.example.db.DatabaseManager;
+import com.example.db.InsufficientStockException;
+import com.example.model.Sale;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Birçok istemciden gelen tekil satışları toplu işlemlerde birleştirir (group
+ * commit). Tek bir yazıcı iş parçacığı, bir önceki işlem sürerken kuyrukta
+ * biriken satışların hepsini (en fazla maxBatch) tek addSales çağrısıyla yazar.
+ * Yük yokken satış beklemeden tek başına yazılır; yük arttıkça işlem başına
+ * satış sayısı kendiliğinden büyür.
+ */
+public class SaleBatcher implements AutoCloseable {
+    private final DatabaseManager dbManager;
+    private final int maxBatch;
+    private final BlockingQueue<PendingSale> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private static final class PendingSale {
+        final Sale sale;
+        final CompletableFuture<Sale> result = new CompletableFuture<>();
+
+        PendingSale(Sale sale) {
+            this.sale = sale;
+        }
+    }
+
+    public SaleBatcher(DatabaseManager dbManager, int maxBatch) {
+        this.dbManager = dbManager;
+        this.maxBatch = maxBatch;
+        this.writer = new Thread(this::writeLoop, "sale-batcher");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // Satış yazıldığında tamamlanır; stok yetmezse InsufficientStockException ile biter
+    // close() ile aynı kilitte: kapatıldıktan sonra kuyruğa satış eklenmez, yazıcı
+    // kuyruk boşalana kadar çalıştığından eklenen her satış yazılır
+    public synchronized CompletableFuture<Sale> submit(Sale sale) {
+        PendingSale pending = new PendingSale(sale);
+        if (!running) {
+            pending.result.completeExceptionally(new SQLException("Satış kuyruğu kapatılmış."));
+            return pending.result;
+        }
+        queue.add(pending);
+        return pending.result;
+    }
+
+    private void writeLoop() {
+        List<PendingSale> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingSale first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                // İstemciler yanıt beklerken askıda kalmasın
+                failPending(new SQLException("Satış kuyruğu kesildi, satış yazılmadı."));
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingSale> batch) {
+        List<Sale> sales = new ArrayList<>(batch.size());
+        for (PendingSale pending : batch) {
+            sales.add(pending.sale);
+        }
+        try {
+            dbManager.addSales(sales);
+            batch.forEach(pending -> pending.result.complete(pending.sale));
+        } catch (InsufficientStockException e) {
+            // Toplu yazım geri alındı; satışlar tek tek denenir, yalnızca stoğu yetmeyenler reddedilir
+            for (PendingSale pending : batch) {
+                try {
+                    dbManager.addSale(pending.sale);
+                    pending.result.complete(pending.sale);
+                } catch (SQLException rejected) {
+                    pending.result.completeExceptionally(rejected);
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            batch.forEach(pending -> pending.result.completeExceptionally(e));
+        }
+    }
+
+    private void failPending(SQLException error) {
+        synchronized (this) {
+            running = false;
+        }
+        PendingSale pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result.completeExceptionally(error);
+        }
+    }
+
+    // Kuyruktaki satışlar yazıldıktan sonra yazıcı durur
+    @Override
+    public void close() {
+        synchronized (this) {
+            running = false;
+        }
+        try {
+            writer.join(10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
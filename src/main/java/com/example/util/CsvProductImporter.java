@@ -0,0 +1,289 @@
+package com.example.util;
+
+import com.example.db.DatabaseManager;
+import com.example.model.Product;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tedarikçi kataloglarını CSV dosyasından toplu olarak içe aktarır. Dosya satır
+ * satır okunur ve ürünler BATCH_SIZE'lık gruplar halinde tek işlemde eklenir;
+ * bellekte yalnızca o anki grup tutulur. Hatalı satırlar atlanır ve sonuçta
+ * satır numarasıyla raporlanır.
+ *
+ * İlk satır başlıktır; sütun sırası serbesttir, büyük/küçük harf önemsizdir:
+ *   name, buy_price, sell_price, quantity   (zorunlu)
+ *   critical_level, barcode, supplier       (isteğe bağlı)
+ * Ayraç başlıktan belirlenir (',' ya da ';'). ';' ile ayrılmış dosyalarda
+ * (Türkçe Excel çıktısı) ondalık ayracı olarak virgül de kabul edilir.
+ * Alanlar çift tırnakla sarılabilir; tırnak içinde ayraç ve satır sonu olabilir.
+ */
+public class CsvProductImporter {
+    private static final int BATCH_SIZE = 50_000;
+    private static final String[] REQUIRED_COLUMNS = {"name", "buy_price", "sell_price", "quantity"};
+
+    private final DatabaseManager dbManager;
+
+    public CsvProductImporter(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+    }
+
+    public ImportResult importFile(Path file) throws SQLException {
+        long start = System.nanoTime();
+        ImportResult result = new ImportResult();
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                throw new IOException("CSV dosyası boş.");
+            }
+            // Excel'in eklediği UTF-8 BOM
+            if (headerLine.startsWith("﻿")) {
+                headerLine = headerLine.substring(1);
+            }
+            char delimiter = headerLine.indexOf(';') >= 0 && headerLine.indexOf(',') < 0 ? ';' : ',';
+            RecordReader records = new RecordReader(reader, delimiter);
+            Map<String, Integer> columns = parseHeader(records.split(headerLine));
+
+            List<Product> batch = new ArrayList<>(BATCH_SIZE);
+            List<Long> batchLines = new ArrayList<>(BATCH_SIZE);
+            // Veritabanındaki barkodlar başta bir kez okunur, satır başına sorgu yapılmaz.
+            // Bu sırada başka bir süreçten eklenen barkodu UNIQUE indeks yakalar
+            Set<String> existingBarcodes = dbManager.getAllBarcodes();
+            // Henüz yazılmamış gruptaki barkodlar
+            Set<String> batchBarcodes = new HashSet<>();
+
+            List<String> fields;
+            while ((fields = records.next()) != null) {
+                long line = records.getRecordLine();
+                if (fields.size() == 1 && fields.get(0).isBlank()) {
+                    continue;
+                }
+                try {
+                    Product product = toProduct(fields, columns, delimiter == ';');
+                    String barcode = product.getBarcode();
+                    if (barcode != null) {
+                        if (existingBarcodes.contains(barcode) || !batchBarcodes.add(barcode)) {
+                            throw new IllegalArgumentException("Bu barkod zaten kullanımda: " + barcode);
+                        }
+                    }
+                    batch.add(product);
+                    batchLines.add(line);
+                } catch (IllegalArgumentException e) {
+                    result.addError(line, e.getMessage());
+                }
+
+                if (batch.size() == BATCH_SIZE) {
+                    flush(batch, batchLines, result, existingBarcodes);
+                    batchBarcodes.clear();
+                }
+            }
+            flush(batch, batchLines, result, existingBarcodes);
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new RuntimeException("CSV dosyası okunurken hata: " + e.getMessage());
+        }
+
+        result.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    // Eklenen ürünlerin barkodları sonraki gruplar için existingBarcodes'a katılır
+    private void flush(List<Product> batch, List<Long> batchLines, ImportResult result,
+                       Set<String> existingBarcodes) throws SQLException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            dbManager.addProducts(batch);
+            result.addImported(batch.size());
+            for (Product product : batch) {
+                if (product.getBarcode() != null) {
+                    existingBarcodes.add(product.getBarcode());
+                }
+            }
+        } catch (SQLException e) {
+            // Grup geri alındı (ör. aynı anda elle eklenen bir ürünle barkod çakışması);
+            // hatalı satırı bulmak için ürünler tek tek eklenir
+            for (int i = 0; i < batch.size(); i++) {
+                try {
+                    dbManager.addProduct(batch.get(i));
+                    result.addImported(1);
+                    if (batch.get(i).getBarcode() != null) {
+                        existingBarcodes.add(batch.get(i).getBarcode());
+                    }
+                } catch (SQLException rowError) {
+                    result.addError(batchLines.get(i), rowError.getMessage());
+                }
+            }
+        }
+        batch.clear();
+        batchLines.clear();
+    }
+
+    private static Map<String, Integer> parseHeader(List<String> header) throws IOException {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(required)) {
+                throw new IOException("CSV başlığında zorunlu sütun eksik: " + required);
+            }
+        }
+        return columns;
+    }
+
+    private static Product toProduct(List<String> fields, Map<String, Integer> columns, boolean decimalComma) {
+        Product product = new Product();
+        String name = field(fields, columns, "name");
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Ürün adı boş.");
+        }
+        product.setName(name.trim());
+        product.setBuyPrice(parseDecimal(fields, columns, "buy_price", decimalComma));
+        product.setSellPrice(parseDecimal(fields, columns, "sell_price", decimalComma));
+        product.setQuantity(parseCount(fields, columns, "quantity", true));
+        product.setCriticalLevel(parseCount(fields, columns, "critical_level", false));
+
+        String barcode = field(fields, columns, "barcode");
+        product.setBarcode(barcode == null || barcode.isBlank() ? null : barcode.trim());
+        String supplier = field(fields, columns, "supplier");
+        product.setSupplier(supplier == null ? null : supplier.trim());
+        return product;
+    }
+
+    // Sütun başlıkta yoksa ya da satır kısaysa null
+    private static String field(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        return index == null || index >= fields.size() ? null : fields.get(index);
+    }
+
+    private static double parseDecimal(List<String> fields, Map<String, Integer> columns, String column,
+                                       boolean decimalComma) {
+        String value = field(fields, columns, column);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(column + " boş.");
+        }
+        String normalized = decimalComma ? value.trim().replace(',', '.') : value.trim();
+        try {
+            double number = Double.parseDouble(normalized);
+            if (number < 0 || Double.isNaN(number) || Double.isInfinite(number)) {
+                throw new IllegalArgumentException(column + " geçersiz: " + value);
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " sayı değil: " + value);
+        }
+    }
+
+    private static int parseCount(List<String> fields, Map<String, Integer> columns, String column,
+                                  boolean required) {
+        String value = field(fields, columns, column);
+        if (value == null || value.isBlank()) {
+            if (required) {
+                throw new IllegalArgumentException(column + " boş.");
+            }
+            return 0;
+        }
+        try {
+            int number = Integer.parseInt(value.trim());
+            if (number < 0) {
+                throw new IllegalArgumentException(column + " negatif olamaz: " + value);
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " tam sayı değil: " + value);
+        }
+    }
+
+    // Tırnaklı alanları destekleyen basit CSV okuyucu (RFC 4180)
+    private static final class RecordReader {
+        private final BufferedReader reader;
+        private final char delimiter;
+        private final StringBuilder field = new StringBuilder();
+        private long line = 1;
+        private long recordLine;
+
+        RecordReader(BufferedReader reader, char delimiter) {
+            this.reader = reader;
+            this.delimiter = delimiter;
+        }
+
+        // Son okunan kaydın başladığı satır
+        long getRecordLine() {
+            return recordLine;
+        }
+
+        List<String> split(String text) throws IOException {
+            return parse(text);
+        }
+
+        List<String> next() throws IOException {
+            String text = reader.readLine();
+            if (text == null) {
+                return null;
+            }
+            line++;
+            recordLine = line;
+            return parse(text);
+        }
+
+        private List<String> parse(String text) throws IOException {
+            List<String> fields = new ArrayList<>();
+            field.setLength(0);
+            boolean quoted = false;
+            int i = 0;
+            while (true) {
+                if (i == text.length()) {
+                    if (!quoted) {
+                        break;
+                    }
+                    // Tırnak içinde satır sonu: alan sonraki satırda devam eder
+                    text = reader.readLine();
+                    if (text == null) {
+                        throw new IOException(recordLine + ". satırda kapanmamış tırnak.");
+                    }
+                    line++;
+                    field.append('\n');
+                    i = 0;
+                    continue;
+                }
+                char c = text.charAt(i++);
+                if (quoted) {
+                    if (c == '"') {
+                        if (i < text.length() && text.charAt(i) == '"') {
+                            field.append('"');
+                            i++;
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == delimiter) {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
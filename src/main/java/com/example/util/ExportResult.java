@@ -0,0 +1,38 @@
+package com.example.util;
+
+/**
+ * Satış dışa aktarımının sonucu. Bir sonraki artımlı çalıştırma
+ * getLastSaleId()'den devam eder; hiç satır yazılmadıysa başlangıç ID'si döner.
+ */
+public class ExportResult {
+    private final String filePath;
+    private final long rowCount;
+    private final long lastSaleId;
+    private final long bytesWritten;
+    private final long elapsedMillis;
+
+    ExportResult(String filePath, long rowCount, long lastSaleId, long bytesWritten, long elapsedMillis) {
+        this.filePath = filePath;
+        this.rowCount = rowCount;
+        this.lastSaleId = lastSaleId;
+        this.bytesWritten = bytesWritten;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public String getFilePath() { return filePath; }
+
+    public long getRowCount() { return rowCount; }
+
+    public long getLastSaleId() { return lastSaleId; }
+
+    // Sıkıştırılmadan önceki boyut
+    public long getBytesWritten() { return bytesWritten; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d satış, son satış ID %d (%d KB, %d ms)",
+            filePath, rowCount, lastSaleId, bytesWritten / 1024, elapsedMillis);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.util;
+
+/**
+ * Tam raporun sonucu: sayfa başına satır sayıları ve süreler. Sorgu süresi
+ * paralel hazırlık aşamasının, yazma süresi satışların akıtılıp dosyaya
+ * yazılmasının duvar saati süresidir.
+ */
+public class FullReportResult {
+    private final String filePath;
+    private final int salesCount;
+    private final int productCount;
+    private final int lowStockCount;
+    private final int supplierCount;
+    private final long queryMillis;
+    private final long writeMillis;
+    private final long wallTimeMillis;
+
+    FullReportResult(String filePath, int salesCount, int productCount, int lowStockCount, int supplierCount,
+                     long queryMillis, long writeMillis, long wallTimeMillis) {
+        this.filePath = filePath;
+        this.salesCount = salesCount;
+        this.productCount = productCount;
+        this.lowStockCount = lowStockCount;
+        this.supplierCount = supplierCount;
+        this.queryMillis = queryMillis;
+        this.writeMillis = writeMillis;
+        this.wallTimeMillis = wallTimeMillis;
+    }
+
+    public String getFilePath() { return filePath; }
+
+    public int getSalesCount() { return salesCount; }
+
+    public int getProductCount() { return productCount; }
+
+    public int getLowStockCount() { return lowStockCount; }
+
+    public int getSupplierCount() { return supplierCount; }
+
+    public long getQueryMillis() { return queryMillis; }
+
+    public long getWriteMillis() { return writeMillis; }
+
+    public long getWallTimeMillis() { return wallTimeMillis; }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d satış, %d ürün, %d kritik stok, %d tedarikçi "
+                + "(toplam %d ms; sorgu %d ms, yazma %d ms)",
+            filePath, salesCount, productCount, lowStockCount, supplierCount,
+            wallTimeMillis, queryMillis, writeMillis);
+    }
+}
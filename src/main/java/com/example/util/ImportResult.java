@@ -0,0 +1,67 @@
+package com.example.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Toplu içe aktarmanın sonucu. Hatalı satırlar işlemi durdurmaz; ilk
+ * MAX_REPORTED_ERRORS tanesi satır numarasıyla birlikte saklanır, geri kalanı
+ * yalnızca sayılır.
+ */
+public class ImportResult {
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    /** Dosyadaki satır numarası (başlık 1. satırdır) ve hata açıklaması. */
+    public static final class RowError {
+        private final long line;
+        private final String message;
+
+        RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() { return line; }
+
+        public String getMessage() { return message; }
+
+        @Override
+        public String toString() {
+            return line + ". satır: " + message;
+        }
+    }
+
+    private final List<RowError> errors = new ArrayList<>();
+    private long importedCount;
+    private long errorCount;
+    private long elapsedMillis;
+
+    void addImported(int count) {
+        importedCount += count;
+    }
+
+    void addError(long line, String message) {
+        errorCount++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new RowError(line, message));
+        }
+    }
+
+    void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getImportedCount() { return importedCount; }
+
+    public long getErrorCount() { return errorCount; }
+
+    public List<RowError> getErrors() { return Collections.unmodifiableList(errors); }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    @Override
+    public String toString() {
+        return String.format("%d ürün eklendi, %d satır hatalı (%d ms)", importedCount, errorCount, elapsedMillis);
+    }
+}
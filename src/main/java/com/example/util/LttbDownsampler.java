@@ -0,0 +1,72 @@
+package com.example.util;
+
+import com.example.model.SalesSeries;
+
+/**
+ * Largest-Triangle-Three-Buckets (LTTB) ile zaman serisi seyreltme. Seri
+ * eşit kovalara bölünür ve her kovadan, bir önceki seçilen nokta ile sonraki
+ * kovanın ortalamasıyla en büyük üçgeni oluşturan nokta seçilir; böylece
+ * tepe ve dipler korunarak nokta sayısı ekran genişliğiyle sınırlanır.
+ */
+public final class LttbDownsampler {
+
+    private LttbDownsampler() {}
+
+    /**
+     * Seçilen noktaların indekslerini artan sırada döner. İlk ve son nokta her
+     * zaman seçilir; seri zaten threshold kadar ya da daha kısaysa tüm indeksler döner.
+     */
+    public static int[] downsample(SalesSeries series, int threshold) {
+        int size = series.size();
+        if (threshold >= size || threshold < 3) {
+            int[] all = new int[size];
+            for (int i = 0; i < size; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        int[] selected = new int[threshold];
+        int count = 0;
+        // Ara kovalar ilk ve son nokta hariç noktaları paylaşır
+        double bucketSize = (double) (size - 2) / (threshold - 2);
+        int a = 0;
+        selected[count++] = a;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // Sonraki kovanın ortalama noktası
+            int nextStart = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, size);
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += series.getTime(i);
+                avgY += series.getAmount(i);
+            }
+            int nextCount = nextEnd - nextStart;
+            avgX /= nextCount;
+            avgY /= nextCount;
+
+            // Bu kovada, a ve ortalama noktayla en büyük üçgeni oluşturan nokta
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            double ax = series.getTime(a);
+            double ay = series.getAmount(a);
+            double maxArea = -1;
+            int maxIndex = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((ax - avgX) * (series.getAmount(i) - ay)
+                    - (ax - series.getTime(i)) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    maxIndex = i;
+                }
+            }
+            selected[count++] = maxIndex;
+            a = maxIndex;
+        }
+
+        selected[count] = size - 1;
+        return selected;
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.util;
+
+import com.example.model.DailySales;
+import com.example.model.Sale;
+import com.example.model.SalesColumns;
+import com.example.model.StockShare;
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.ChartPanel;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.data.category.DefaultCategoryDataset;
+import org.jfree.data.general.DefaultPieDataset;
+
+import javax.swing.*;
+import java.awt.*;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Satış ve stok grafikleri. Excel raporlarından ayrı tutulur; böylece başsız
+ * komut satırı (ReportCli) Swing ve JFreeChart sınıflarını hiç yüklemez.
+ */
+public class ReportCharts {
+
+    public static JFrame createSalesChart(List<Sale> sales) {
+        return createChartFrame(buildSalesChart(sales), "Satış Grafiği");
+    }
+
+    // Pencere açmadan yalnızca grafiği üretir (ör. başsız ortamda görüntüye çizmek için)
+    public static JFreeChart buildSalesChart(List<Sale> sales) {
+        return buildSalesChart(SalesColumns.of(sales));
+    }
+
+    public static JFrame createSalesChart(SalesColumns sales) {
+        return createChartFrame(buildSalesChart(sales), "Satış Grafiği");
+    }
+
+    // Günlük toplamlar sütun dizileri üzerinde tek geçişte hesaplanır; satışı
+    // olmayan günler grafikte yer almaz
+    public static JFreeChart buildSalesChart(SalesColumns sales) {
+        double[] amountByDay = sales.amountByDay();
+        long firstDay = sales.getFirstDay();
+
+        // Veri setini oluştur
+        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
+        for (int i = 0; i < amountByDay.length; i++) {
+            if (amountByDay[i] != 0) {
+                dataset.addValue(amountByDay[i], "Satış", LocalDate.ofEpochDay(firstDay + i).toString());
+            }
+        }
+
+        return createSalesLineChart(dataset);
+    }
+
+    // Günlük özet tablosundan gelen, zaten gruplanmış veriden grafik oluşturur
+    public static JFrame createDailySalesChart(List<DailySales> dailySales) {
+        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
+        for (DailySales day : dailySales) {
+            dataset.addValue(day.getTotalAmount(), "Satış", day.getDay().toString());
+        }
+
+        return createChartFrame(createSalesLineChart(dataset), "Satış Grafiği");
+    }
+
+    // Uzun aralıklar için tarih eksenli, yakınlaştırılabilir grafik. Veri, görünen
+    // aralık değiştikçe loader ile arka planda yeniden yüklenir
+    public static JFrame createSalesTimeSeriesChart(SalesTimeSeriesChart.SeriesLoader loader,
+                                                    Date startDate, Date endDate) {
+        SalesTimeSeriesChart chart = new SalesTimeSeriesChart(loader, startDate, endDate);
+        JFrame frame = createChartFrame(chart.getChartPanel(), "Satış Zaman Grafiği");
+        chart.reload();
+        return frame;
+    }
+
+    private static JFreeChart createSalesLineChart(DefaultCategoryDataset dataset) {
+        // Grafiği oluştur
+        return ChartFactory.createLineChart(
+            "Günlük Satış Grafiği",
+            "Tarih",
+            "Satış Tutarı (TL)",
+            dataset,
+            PlotOrientation.VERTICAL,
+            true,
+            true,
+            false
+        );
+    }
+
+    private static JFrame createChartFrame(JFreeChart chart, String title) {
+        ChartPanel chartPanel = new ChartPanel(chart);
+        chartPanel.setPreferredSize(new Dimension(750, 500));
+        return createChartFrame(chartPanel, title);
+    }
+
+    private static JFrame createChartFrame(ChartPanel chartPanel, String title) {
+        // Pencereyi oluştur
+        JFrame frame = new JFrame(title);
+        frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        frame.setSize(800, 600);
+        frame.setLocationRelativeTo(null);
+
+        // Grafiği pencereye ekle
+        frame.add(chartPanel);
+
+        return frame;
+    }
+
+    // Dilimler veritabanında hesaplanmış ilk N + "Diğer" dağılımıdır
+    // (DatabaseManager.getStockValueDistribution); ürün sayısından bağımsız olarak okunaklı kalır
+    public static JFrame createProductDistributionChart(List<StockShare> shares, String title) {
+        // Veri setini oluştur
+        DefaultPieDataset<String> dataset = new DefaultPieDataset<>();
+        for (StockShare share : shares) {
+            // Aynı adlı ürünler birbirinin dilimini ezmesin
+            String key = share.getLabel();
+            for (int n = 2; dataset.getIndex(key) >= 0; n++) {
+                key = share.getLabel() + " (" + n + ")";
+            }
+            dataset.setValue(key, share.getValue());
+        }
+
+        // Grafiği oluştur
+        JFreeChart chart = ChartFactory.createPieChart(
+            title,
+            dataset,
+            true,
+            true,
+            false
+        );
+
+        return createChartFrame(chart, title);
+    }
+}
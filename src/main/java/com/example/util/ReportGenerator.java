@@ -1,235 +1,285 @@
 package com.example.util;
 
+import com.example.db.DatabaseManager;
 import com.example.model.Product;
 import com.example.model.Sale;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import org.jfree.chart.ChartFactory;
-import org.jfree.chart.ChartPanel;
-import org.jfree.chart.JFreeChart;
-import org.jfree.chart.plot.PlotOrientation;
-import org.jfree.data.category.DefaultCategoryDataset;
-import org.jfree.data.general.DefaultPieDataset;
-
-import javax.swing.*;
-import java.awt.*;
-import java.io.FileOutputStream;
+import com.example.model.SupplierSummary;
+
 import java.io.IOException;
-import java.text.SimpleDateFormat;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.List;
-
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Excel raporları. Sınıf durum tutmaz; tüm metotlar farklı iş parçacıklarından
+ * aynı anda çağrılabilir (ör. satış ve stok raporu birlikte). Sayfalar
+ * StreamingWorkbook ile sabit sütun genişlikleriyle yazılır. Grafikler
+ * ReportCharts'tadır; bu sınıf Swing/AWT ve JFreeChart yüklemez (ReportCli).
+ */
 public class ReportGenerator {
-    private static final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+    // DateTimeFormatter değişmezdir; SimpleDateFormat'ın aksine paylaşılabilir
+    private static final DateTimeFormatter DATE_TIME_FORMAT =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+    private static final int PROGRESS_INTERVAL = 1000;
+    // Tam raporda aynı anda hazırlanan sayfa sayısı (okuma havuzu boyutunu aşmaz)
+    private static final int SHEET_PARALLELISM = 4;
+
+    private static final String[] SALES_COLUMNS = {
+        "Satış ID", "Ürün ID", "Ürün Adı", "Miktar",
+        "Birim Fiyat", "Toplam Tutar", "Kâr", "Satış Tarihi"
+    };
+    private static final String[] STOCK_COLUMNS = {
+        "Ürün ID", "Ürün Adı", "Alış Fiyatı", "Satış Fiyatı",
+        "Stok Miktarı", "Toplam Değer", "Kritik Seviye",
+        "Barkod", "Tedarikçi", "Durum"
+    };
+    private static final String[] SUPPLIER_COLUMNS = {
+        "Tedarikçi", "Ürün Sayısı", "Stok Değeri", "Satılan Miktar", "Satış Tutarı", "Kâr"
+    };
+
+    // Tam rapor sayfaları için sorgu; SQLException taşıyabilir
+    @FunctionalInterface
+    private interface SheetQuery<T> {
+        T run() throws SQLException;
+    }
 
     public static void generateSalesReport(List<Sale> sales, String filePath) {
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("Satış Raporu");
-
-            // Başlık stilini oluştur
-            CellStyle headerStyle = workbook.createCellStyle();
-            org.apache.poi.ss.usermodel.Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerStyle.setFont(headerFont);
-            headerStyle.setAlignment(HorizontalAlignment.CENTER);
-
-            // Başlıkları oluştur
-            Row headerRow = sheet.createRow(0);
-            String[] columns = {
-                "Satış ID", "Ürün ID", "Ürün Adı", "Miktar", 
-                "Birim Fiyat", "Toplam Tutar", "Kâr", "Satış Tarihi"
-            };
-
-            for (int i = 0; i < columns.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(columns[i]);
-                cell.setCellStyle(headerStyle);
-                sheet.setColumnWidth(i, 15 * 256); // 15 karakter genişliğinde
-            }
+        try {
+            StreamingWorkbook workbook = new StreamingWorkbook();
+            workbook.addSheet("Satış Raporu", SALES_COLUMNS, rows -> {
+                SalesSheetWriter writer = new SalesSheetWriter(rows);
+                for (Sale sale : sales) {
+                    writer.append(sale);
+                }
+                writer.writeSummary();
+            });
 
-            // Verileri doldur
-            int rowNum = 1;
-            for (Sale sale : sales) {
-                Row row = sheet.createRow(rowNum++);
-                row.createCell(0).setCellValue(sale.getId());
-                row.createCell(1).setCellValue(sale.getProductId());
-                row.createCell(2).setCellValue(sale.getProductName());
-                row.createCell(3).setCellValue(sale.getQuantity());
-                row.createCell(4).setCellValue(sale.getUnitPrice());
-                row.createCell(5).setCellValue(sale.getTotalAmount());
-                row.createCell(6).setCellValue(sale.getProfit());
-                row.createCell(7).setCellValue(dateFormat.format(sale.getSaleDate()));
-            }
+            // Dosyaya kaydet
+            workbook.write(Path.of(filePath));
 
-            // Özet bilgileri ekle
-            rowNum += 2;
-            Row summaryRow = sheet.createRow(rowNum++);
-            summaryRow.createCell(0).setCellValue("Toplam Satış Tutarı:");
-            summaryRow.createCell(1).setCellValue(
-                sales.stream()
-                    .mapToDouble(Sale::getTotalAmount)
-                    .sum()
-            );
-
-            Row profitRow = sheet.createRow(rowNum);
-            profitRow.createCell(0).setCellValue("Toplam Kâr:");
-            profitRow.createCell(1).setCellValue(
-                sales.stream()
-                    .mapToDouble(Sale::getProfit)
-                    .sum()
-            );
+        } catch (IOException | SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException("Rapor oluşturulurken hata: " + e.getMessage());
+        }
+    }
 
-            // Dosyaya kaydet
-            try (FileOutputStream fileOut = new FileOutputStream(filePath)) {
-                workbook.write(fileOut);
-            }
+    // Akış modu: satışlar veritabanı imlecinden tek tek okunur ve doğrudan sayfa
+    // XML'ine yazılır; bellek kullanımı satır sayısından bağımsızdır
+    public static void streamSalesReport(DatabaseManager dbManager, Date startDate, Date endDate,
+                                         String filePath) throws SQLException {
+        streamSalesReport(dbManager, startDate, endDate, filePath, ReportProgress.NONE);
+    }
 
+    // İlerleme her PROGRESS_INTERVAL satırda bildirilir; iptal edilirse dosya yazılmaz
+    // ve CancellationException fırlatılır
+    public static void streamSalesReport(DatabaseManager dbManager, Date startDate, Date endDate,
+                                         String filePath, ReportProgress progress) throws SQLException {
+        long total = progress == ReportProgress.NONE ? -1 : dbManager.countSalesInRange(startDate, endDate);
+        try {
+            StreamingWorkbook workbook = new StreamingWorkbook();
+            long[] done = {0};
+            workbook.addSheet("Satış Raporu", SALES_COLUMNS, rows -> {
+                SalesSheetWriter writer = new SalesSheetWriter(rows);
+                dbManager.forEachSaleInRange(startDate, endDate, sale -> {
+                    writer.append(sale);
+                    if (++done[0] % PROGRESS_INTERVAL == 0) {
+                        if (progress.isCancelled()) {
+                            throw new CancellationException("Rapor iptal edildi.");
+                        }
+                        progress.onProgress(done[0], total);
+                    }
+                });
+                writer.writeSummary();
+            });
+
+            // Dosyaya kaydet
+            workbook.write(Path.of(filePath));
+            progress.onProgress(done[0], total);
         } catch (IOException e) {
             e.printStackTrace();
             throw new RuntimeException("Rapor oluşturulurken hata: " + e.getMessage());
         }
     }
 
-    public static void generateStockReport(List<Product> products, String filePath) {
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("Stok Raporu");
-
-            // Başlık stilini oluştur
-            CellStyle headerStyle = workbook.createCellStyle();
-            org.apache.poi.ss.usermodel.Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerStyle.setFont(headerFont);
-            headerStyle.setAlignment(HorizontalAlignment.CENTER);
-
-            // Başlıkları oluştur
-            Row headerRow = sheet.createRow(0);
-            String[] columns = {
-                "Ürün ID", "Ürün Adı", "Alış Fiyatı", "Satış Fiyatı",
-                "Stok Miktarı", "Toplam Değer", "Kritik Seviye",
-                "Barkod", "Tedarikçi", "Durum"
-            };
-
-            for (int i = 0; i < columns.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(columns[i]);
-                cell.setCellStyle(headerStyle);
-                sheet.setColumnWidth(i, 15 * 256);
-            }
+    // Satış sayfasını satır satır yazar; özet toplamları aynı geçişte biriktirir
+    private static final class SalesSheetWriter {
+        private final StreamingWorkbook.Rows rows;
+        private int rowNum = 1;
+        private int count;
+        private double totalAmount;
+        private double totalProfit;
 
-            // Verileri doldur
-            int rowNum = 1;
-            for (Product product : products) {
-                Row row = sheet.createRow(rowNum++);
-                row.createCell(0).setCellValue(product.getId());
-                row.createCell(1).setCellValue(product.getName());
-                row.createCell(2).setCellValue(product.getBuyPrice());
-                row.createCell(3).setCellValue(product.getSellPrice());
-                row.createCell(4).setCellValue(product.getQuantity());
-                row.createCell(5).setCellValue(product.getTotalValue());
-                row.createCell(6).setCellValue(product.getCriticalLevel());
-                row.createCell(7).setCellValue(product.getBarcode());
-                row.createCell(8).setCellValue(product.getSupplier());
-                row.createCell(9).setCellValue(product.isLowStock() ? "Kritik" : "Normal");
-            }
+        SalesSheetWriter(StreamingWorkbook.Rows rows) {
+            this.rows = rows;
+        }
+
+        void append(Sale sale) {
+            rows.startRow(rowNum++);
+            rows.number(0, sale.getId());
+            rows.number(1, sale.getProductId());
+            rows.text(2, sale.getProductName());
+            rows.number(3, sale.getQuantity());
+            rows.number(4, sale.getUnitPrice());
+            rows.number(5, sale.getTotalAmount());
+            rows.number(6, sale.getProfit());
+            rows.text(7, DATE_TIME_FORMAT.format(sale.getSaleDate().toInstant()));
+
+            count++;
+            totalAmount += sale.getTotalAmount();
+            totalProfit += sale.getProfit();
+        }
 
-            // Özet bilgileri ekle
+        // Özet bilgileri ekle
+        void writeSummary() {
             rowNum += 2;
-            Row summaryRow = sheet.createRow(rowNum++);
-            summaryRow.createCell(0).setCellValue("Toplam Stok Değeri:");
-            summaryRow.createCell(1).setCellValue(
-                products.stream()
-                    .mapToDouble(Product::getTotalValue)
-                    .sum()
-            );
-
-            Row criticalRow = sheet.createRow(rowNum);
-            criticalRow.createCell(0).setCellValue("Kritik Seviyedeki Ürün Sayısı:");
-            criticalRow.createCell(1).setCellValue(
-                products.stream()
-                    .filter(Product::isLowStock)
-                    .count()
-            );
+            rows.startRow(rowNum++);
+            rows.text(0, "Toplam Satış Tutarı:");
+            rows.number(1, totalAmount);
+
+            rows.startRow(rowNum);
+            rows.text(0, "Toplam Kâr:");
+            rows.number(1, totalProfit);
+        }
+    }
+
+    public static void generateStockReport(List<Product> products, String filePath) {
+        try {
+            StreamingWorkbook workbook = new StreamingWorkbook();
+            workbook.addSheet("Stok Raporu", STOCK_COLUMNS, rows -> writeStockRows(rows, products));
 
             // Dosyaya kaydet
-            try (FileOutputStream fileOut = new FileOutputStream(filePath)) {
-                workbook.write(fileOut);
-            }
+            workbook.write(Path.of(filePath));
 
-        } catch (IOException e) {
+        } catch (IOException | SQLException e) {
             e.printStackTrace();
             throw new RuntimeException("Rapor oluşturulurken hata: " + e.getMessage());
         }
     }
 
-    public static JFrame createSalesChart(List<Sale> sales) {
-        // Satış verilerini günlük olarak grupla
-        Map<String, Double> dailySales = new TreeMap<>();
-        SimpleDateFormat dayFormat = new SimpleDateFormat("yyyy-MM-dd");
-        
-        for (Sale sale : sales) {
-            String day = dayFormat.format(sale.getSaleDate());
-            dailySales.merge(day, sale.getTotalAmount(), Double::sum);
+    /**
+     * Satış, stok, kritik stok ve tedarikçi özeti sayfalarından oluşan tek çalışma
+     * kitabı. Küçük sayfaların verileri bir ForkJoinPool üzerinde paralel sorgulanır;
+     * çalışma kitabı ardından tek iş parçacığında yazılır. Satışlar listeye
+     * alınmaz, yazma sırasında imleçten akıtılır. Sonuçta sorgu, yazma ve toplam
+     * süreler döner.
+     */
+    public static FullReportResult generateFullReport(DatabaseManager dbManager, Date startDate, Date endDate,
+                                                      String filePath) throws SQLException {
+        long start = System.nanoTime();
+
+        List<Product> products;
+        List<Product> lowStock;
+        List<SupplierSummary> suppliers;
+        ForkJoinPool pool = new ForkJoinPool(SHEET_PARALLELISM);
+        try {
+            ForkJoinTask<List<Product>> productsTask = fork(pool, dbManager::getAllProducts);
+            ForkJoinTask<List<Product>> lowStockTask = fork(pool, dbManager::getLowStockProducts);
+            ForkJoinTask<List<SupplierSummary>> suppliersTask = fork(pool,
+                () -> dbManager.getSupplierSummaries(startDate, endDate));
+
+            products = join(productsTask);
+            lowStock = join(lowStockTask);
+            suppliers = join(suppliersTask);
+        } finally {
+            pool.shutdown();
         }
+        long queried = System.nanoTime();
+
+        // Satış sayfası büyük olabileceğinden imleçten doğrudan dosyaya akıtılır
+        int[] salesCount = {0};
+        try {
+            StreamingWorkbook workbook = new StreamingWorkbook();
+            workbook.addSheet("Satış Raporu", SALES_COLUMNS, rows -> {
+                SalesSheetWriter salesWriter = new SalesSheetWriter(rows);
+                dbManager.forEachSaleInRange(startDate, endDate, salesWriter::append);
+                salesWriter.writeSummary();
+                salesCount[0] = salesWriter.count;
+            });
+            workbook.addSheet("Stok Raporu", STOCK_COLUMNS, rows -> writeStockRows(rows, products));
+            workbook.addSheet("Kritik Stok", STOCK_COLUMNS, rows -> writeStockRows(rows, lowStock));
+            workbook.addSheet("Tedarikçiler", SUPPLIER_COLUMNS, rows -> writeSupplierRows(rows, suppliers));
+
+            workbook.write(Path.of(filePath));
+        } catch (IOException e) {
+            throw new SQLException("Rapor dosyası yazılamadı: " + e.getMessage(), e);
+        }
+        long written = System.nanoTime();
 
-        // Veri setini oluştur
-        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
-        dailySales.forEach((day, amount) -> 
-            dataset.addValue(amount, "Satış", day)
-        );
-
-        // Grafiği oluştur
-        JFreeChart chart = ChartFactory.createLineChart(
-            "Günlük Satış Grafiği",
-            "Tarih",
-            "Satış Tutarı (TL)",
-            dataset,
-            PlotOrientation.VERTICAL,
-            true,
-            true,
-            false
-        );
+        return new FullReportResult(filePath, salesCount[0], products.size(), lowStock.size(), suppliers.size(),
+            (queried - start) / 1_000_000, (written - queried) / 1_000_000, (written - start) / 1_000_000);
+    }
 
-        // Pencereyi oluştur
-        JFrame frame = new JFrame("Satış Grafiği");
-        frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
-        frame.setSize(800, 600);
-        frame.setLocationRelativeTo(null);
+    private static <T> ForkJoinTask<T> fork(ForkJoinPool pool, SheetQuery<T> query) {
+        return pool.submit(query::run);
+    }
 
-        // Grafiği pencereye ekle
-        ChartPanel chartPanel = new ChartPanel(chart);
-        chartPanel.setPreferredSize(new Dimension(750, 500));
-        frame.add(chartPanel);
+    private static <T> T join(ForkJoinTask<T> task) throws SQLException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Rapor hazırlanırken kesildi.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new SQLException("Rapor hazırlanamadı: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
 
-        return frame;
+    private static void writeSupplierRows(StreamingWorkbook.Rows rows, List<SupplierSummary> suppliers) {
+        int rowNum = 1;
+        for (SupplierSummary supplier : suppliers) {
+            rows.startRow(rowNum++);
+            rows.text(0, supplier.getSupplier());
+            rows.number(1, supplier.getProductCount());
+            rows.number(2, supplier.getStockValue());
+            rows.number(3, supplier.getSoldQuantity());
+            rows.number(4, supplier.getSalesAmount());
+            rows.number(5, supplier.getProfit());
+        }
     }
 
-    public static JFrame createProductDistributionChart(List<Product> products) {
-        // Veri setini oluştur
-        DefaultPieDataset dataset = new DefaultPieDataset();
+    private static void writeStockRows(StreamingWorkbook.Rows rows, List<Product> products) {
+        // Verileri doldur
+        int rowNum = 1;
         for (Product product : products) {
-            dataset.setValue(product.getName(), product.getTotalValue());
+            rows.startRow(rowNum++);
+            rows.number(0, product.getId());
+            rows.text(1, product.getName());
+            rows.number(2, product.getBuyPrice());
+            rows.number(3, product.getSellPrice());
+            rows.number(4, product.getQuantity());
+            rows.number(5, product.getTotalValue());
+            rows.number(6, product.getCriticalLevel());
+            rows.text(7, product.getBarcode());
+            rows.text(8, product.getSupplier());
+            rows.text(9, product.isLowStock() ? "Kritik" : "Normal");
         }
 
-        // Grafiği oluştur
-        JFreeChart chart = ChartFactory.createPieChart(
-            "Ürün Dağılımı",
-            dataset,
-            true,
-            true,
-            false
+        // Özet bilgileri ekle
+        rowNum += 2;
+        rows.startRow(rowNum++);
+        rows.text(0, "Toplam Stok Değeri:");
+        rows.number(1,
+            products.stream()
+                .mapToDouble(Product::getTotalValue)
+                .sum()
         );
 
-        // Pencereyi oluştur
-        JFrame frame = new JFrame("Ürün Dağılımı");
-        frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
-        frame.setSize(800, 600);
-        frame.setLocationRelativeTo(null);
-
-        // Grafiği pencereye ekle
-        ChartPanel chartPanel = new ChartPanel(chart);
-        chartPanel.setPreferredSize(new Dimension(750, 500));
-        frame.add(chartPanel);
-
-        return frame;
+        rows.startRow(rowNum);
+        rows.text(0, "Kritik Seviyedeki Ürün Sayısı:");
+        rows.number(1,
+            products.stream()
+                .filter(Product::isLowStock)
+                .count()
+        );
     }
-} 
\ No newline at end of file
+}
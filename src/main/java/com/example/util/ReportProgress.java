@@ -0,0 +1,15 @@
+package com.example.util;
+
+/**
+ * Uzun süren rapor işlemleri için ilerleme bildirimi ve iptal kontrolü.
+ */
+public interface ReportProgress {
+    ReportProgress NONE = (done, total) -> { };
+
+    // total bilinmiyorsa -1
+    void onProgress(long done, long total);
+
+    default boolean isCancelled() {
+        return false;
+    }
+}
@@ -0,0 +1,330 @@
+package com.example.util;
+
+import com.example.db.DatabaseManager;
+import com.example.model.Sale;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Ham satışları BI araçları için CSV ya da NDJSON (satır başına bir JSON nesnesi)
+ * olarak dışa aktarır. Satırlar veritabanı imlecinden okunup doğrudan sabit
+ * boyutlu bir bayt tamponuna kodlanır ve tampon dolunca FileChannel'a yazılır;
+ * satır başına metin üretilmez, bellek kullanımı satır sayısından bağımsızdır.
+ *
+ * Dosya adı ".gz" ile bitiyorsa çıktı gzip ile sıkıştırılır. Dosya önce geçici
+ * adla yazılır, başarıyla bitince yerine taşınır; yarım dosya bırakılmaz.
+ */
+public class SalesExporter {
+    public enum Format { CSV, NDJSON }
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+    private static final int PROGRESS_INTERVAL = 10_000;
+    private static final String CSV_HEADER =
+        "id,product_id,product_name,quantity,unit_price,total_amount,profit,sale_date\n";
+    private static final DateTimeFormatter DATE_FORMAT =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSXXX", Locale.ROOT);
+
+    // Biçim dosya uzantısından belirlenir: .ndjson / .jsonl (gerekirse .gz ile) NDJSON, diğerleri CSV
+    public static Format formatOf(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".gz")) {
+            name = name.substring(0, name.length() - 3);
+        }
+        return name.endsWith(".ndjson") || name.endsWith(".jsonl") ? Format.NDJSON : Format.CSV;
+    }
+
+    public static boolean isGzip(Path file) {
+        return file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".gz");
+    }
+
+    // afterSaleId = 0 tüm satışları, önceki sonucun getLastSaleId() değeri yalnızca yenileri aktarır
+    public static ExportResult exportSales(DatabaseManager dbManager, Path file, long afterSaleId)
+            throws SQLException {
+        return exportSales(dbManager, file, formatOf(file), isGzip(file), afterSaleId, ReportProgress.NONE);
+    }
+
+    // İlerleme her PROGRESS_INTERVAL satırda bildirilir; iptal edilirse dosya yazılmaz
+    // ve CancellationException fırlatılır
+    public static ExportResult exportSales(DatabaseManager dbManager, Path file, Format format, boolean gzip,
+                                           long afterSaleId, ReportProgress progress) throws SQLException {
+        long start = System.nanoTime();
+        long total = progress == ReportProgress.NONE ? -1 : dbManager.countSalesAfter(afterSaleId);
+        Path target = file.toAbsolutePath();
+        Path tempFile = target.resolveSibling(target.getFileName() + ".tmp");
+
+        long[] state = {0, afterSaleId};  // yazılan satır, son satış ID'si
+        long bytesWritten;
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             RecordWriter writer = new RecordWriter(gzip
+                 ? Channels.newChannel(new FastGzipOutputStream(Channels.newOutputStream(channel)))
+                 : channel)) {
+            if (format == Format.CSV) {
+                writer.putAscii(CSV_HEADER);
+            }
+            try {
+                dbManager.forEachSaleAfter(afterSaleId, sale -> {
+                    if (format == Format.CSV) {
+                        writer.writeCsv(sale);
+                    } else {
+                        writer.writeJson(sale);
+                    }
+                    state[1] = sale.getId();
+                    if (++state[0] % PROGRESS_INTERVAL == 0) {
+                        if (progress.isCancelled()) {
+                            throw new CancellationException("Dışa aktarma iptal edildi.");
+                        }
+                        progress.onProgress(state[0], total);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.flush();
+            bytesWritten = writer.bytesWritten;
+        } catch (IOException e) {
+            deleteQuietly(tempFile);
+            e.printStackTrace();
+            throw new RuntimeException("Satışlar dışa aktarılırken hata: " + e.getMessage());
+        } catch (SQLException | RuntimeException e) {
+            deleteQuietly(tempFile);
+            throw e;
+        }
+
+        try {
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            deleteQuietly(tempFile);
+            throw new RuntimeException("Dışa aktarma dosyası kaydedilemedi: " + e.getMessage());
+        }
+        progress.onProgress(state[0], total);
+        return new ExportResult(target.toString(), state[0], state[1], bytesWritten,
+            (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("Geçici dosya silinemedi: " + e.getMessage());
+        }
+    }
+
+    // En hızlı düzey varsayılana (6) göre ~%30 daha hızlı, dosya ~%30 daha büyük;
+    // dışa aktarma süresi dosya boyutundan önemli
+    private static final class FastGzipOutputStream extends GZIPOutputStream {
+        FastGzipOutputStream(OutputStream out) throws IOException {
+            super(out, BUFFER_SIZE);
+            def.setLevel(Deflater.BEST_SPEED);
+        }
+    }
+
+    // Kayıtları tampona UTF-8 olarak kodlar; tampon dolunca kanala boşaltır
+    private static final class RecordWriter implements AutoCloseable {
+        private final WritableByteChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private final ZoneId zone = ZoneId.systemDefault();
+        private final StringBuilder dateText = new StringBuilder(32);
+        private long bytesWritten;
+
+        RecordWriter(WritableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        void writeCsv(Sale sale) {
+            putLong(sale.getId());
+            put(',');
+            putLong(sale.getProductId());
+            put(',');
+            put('"');
+            putText(sale.getProductName(), false);
+            put('"');
+            put(',');
+            putLong(sale.getQuantity());
+            put(',');
+            putDecimal(sale.getUnitPrice());
+            put(',');
+            putDecimal(sale.getTotalAmount());
+            put(',');
+            putDecimal(sale.getProfit());
+            put(',');
+            putDate(sale.getSaleDate().getTime());
+            put('\n');
+        }
+
+        void writeJson(Sale sale) {
+            putAscii("{\"id\":");
+            putLong(sale.getId());
+            putAscii(",\"product_id\":");
+            putLong(sale.getProductId());
+            putAscii(",\"product_name\":\"");
+            putText(sale.getProductName(), true);
+            putAscii("\",\"quantity\":");
+            putLong(sale.getQuantity());
+            putAscii(",\"unit_price\":");
+            putDecimal(sale.getUnitPrice());
+            putAscii(",\"total_amount\":");
+            putDecimal(sale.getTotalAmount());
+            putAscii(",\"profit\":");
+            putDecimal(sale.getProfit());
+            putAscii(",\"sale_date\":\"");
+            putDate(sale.getSaleDate().getTime());
+            putAscii("\"}\n");
+        }
+
+        void putAscii(String text) {
+            for (int i = 0; i < text.length(); i++) {
+                put(text.charAt(i));
+            }
+        }
+
+        // CSV'de çift tırnak ikilenir; JSON'da tırnak, ters eğik çizgi ve kontrol karakterleri kaçırılır
+        private void putText(String text, boolean json) {
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '"') {
+                    put(json ? '\\' : '"');
+                    put('"');
+                } else if (json && c == '\\') {
+                    put('\\');
+                    put('\\');
+                } else if (json && c < 0x20) {
+                    putAscii("\\u00");
+                    put(Character.forDigit(c >> 4, 16));
+                    put(Character.forDigit(c & 0xF, 16));
+                } else if (c < 0x80) {
+                    put(c);
+                } else if (c < 0x800) {
+                    put((char) (0xC0 | c >> 6));
+                    put((char) (0x80 | c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                        && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                    put((char) (0xF0 | codePoint >> 18));
+                    put((char) (0x80 | codePoint >> 12 & 0x3F));
+                    put((char) (0x80 | codePoint >> 6 & 0x3F));
+                    put((char) (0x80 | codePoint & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    put('?');
+                } else {
+                    put((char) (0xE0 | c >> 12));
+                    put((char) (0x80 | c >> 6 & 0x3F));
+                    put((char) (0x80 | c & 0x3F));
+                }
+            }
+        }
+
+        private void putLong(long value) {
+            if (value < 0) {
+                put('-');
+                value = -value;
+            }
+            if (buffer.remaining() < 20) {
+                drain();
+            }
+            // Basamaklar sondan başa yazılır
+            int end = buffer.position() + digitCount(value);
+            int pos = end;
+            do {
+                buffer.put(--pos, (byte) ('0' + value % 10));
+                value /= 10;
+            } while (value > 0);
+            buffer.position(end);
+        }
+
+        private static int digitCount(long value) {
+            int digits = 1;
+            while (value >= 10) {
+                value /= 10;
+                digits++;
+            }
+            return digits;
+        }
+
+        // Tutarlar çoğunlukla kuruş hassasiyetindedir; bunlar metin üretmeden yazılır
+        private void putDecimal(double value) {
+            double cents = value * 100;
+            if (cents == Math.rint(cents) && Math.abs(cents) < 1e15) {
+                long c = (long) cents;
+                if (c < 0) {
+                    put('-');
+                    c = -c;
+                }
+                putLong(c / 100);
+                long fraction = c % 100;
+                if (fraction != 0) {
+                    put('.');
+                    put((char) ('0' + fraction / 10));
+                    if (fraction % 10 != 0) {
+                        put((char) ('0' + fraction % 10));
+                    }
+                }
+            } else {
+                putAscii(Double.toString(value));
+            }
+        }
+
+        private void putDate(long epochMillis) {
+            dateText.setLength(0);
+            DATE_FORMAT.formatTo(Instant.ofEpochMilli(epochMillis).atZone(zone), dateText);
+            for (int i = 0; i < dateText.length(); i++) {
+                put(dateText.charAt(i));
+            }
+        }
+
+        // Yalnızca 0-255 aralığındaki değerler (ASCII ya da hazır UTF-8 baytları)
+        private void put(char b) {
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+            buffer.put((byte) b);
+        }
+
+        private void drain() {
+            try {
+                buffer.flip();
+                bytesWritten += buffer.remaining();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                buffer.clear();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void flush() throws IOException {
+            try {
+                drain();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            // gzip akışının kapanması sıkıştırmayı bitirir; düz dosyada kanal dışarıda kapanır
+            if (channel.isOpen() && !(channel instanceof FileChannel)) {
+                channel.close();
+            }
+        }
+    }
+}
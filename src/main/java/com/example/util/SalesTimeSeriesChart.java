@@ -0,0 +1,131 @@
+package com.example.util;
+
+import com.example.model.SalesSeries;
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.ChartPanel;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.DateAxis;
+import org.jfree.data.Range;
+import org.jfree.data.xy.DefaultXYDataset;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Gerçek tarih eksenli satış grafiği. Noktalar LTTB ile grafik genişliği
+ * kadar seyreltilir; yakınlaştırıldığında yalnızca görünen aralık, daha ince
+ * çözünürlükle yeniden sorgulanır. "Otomatik aralık" tüm aralığa geri döner.
+ */
+public class SalesTimeSeriesChart {
+
+    // Görünen aralığın verisini arka planda yükler
+    @FunctionalInterface
+    public interface SeriesLoader {
+        CompletableFuture<SalesSeries> load(Date start, Date end);
+    }
+
+    private static final String SERIES_KEY = "Satış";
+    private static final int RELOAD_DELAY_MS = 250;
+    private static final int MIN_POINTS = 100;
+
+    private final SeriesLoader loader;
+    private final long fullStart;
+    private final long fullEnd;
+    private final DefaultXYDataset dataset = new DefaultXYDataset();
+    private final JFreeChart chart;
+    private final DateAxis dateAxis;
+    private final ChartPanel chartPanel;
+    private final Timer reloadTimer;
+    private Range requestedRange;
+    private int requestSequence;
+    private SalesSeries series;
+
+    public SalesTimeSeriesChart(SeriesLoader loader, Date start, Date end) {
+        this.loader = loader;
+        this.fullStart = start.getTime();
+        this.fullEnd = end.getTime();
+
+        chart = ChartFactory.createTimeSeriesChart(
+            "Satış Zaman Grafiği",
+            "Tarih",
+            "Satış Tutarı (TL)",
+            dataset,
+            false,
+            true,
+            false
+        );
+        dateAxis = (DateAxis) chart.getXYPlot().getDomainAxis();
+        // Eksen aralığı veriden değil, istenen aralıktan belirlenir
+        dateAxis.setRange(fullStart, fullEnd);
+
+        chartPanel = new ChartPanel(chart) {
+            @Override
+            public void restoreAutoDomainBounds() {
+                dateAxis.setRange(fullStart, fullEnd);
+            }
+        };
+        chartPanel.setPreferredSize(new Dimension(750, 500));
+        chartPanel.setMouseWheelEnabled(true);
+        // Boyut değişince eldeki seri yeni genişliğe göre yeniden seyreltilir
+        chartPanel.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                if (series != null) {
+                    show(series);
+                }
+            }
+        });
+
+        // Yakınlaştırma/kaydırma sırasında her adımda sorgu atılmaz
+        reloadTimer = new Timer(RELOAD_DELAY_MS, e -> reload());
+        reloadTimer.setRepeats(false);
+        dateAxis.addChangeListener(e -> reloadTimer.restart());
+    }
+
+    public JFreeChart getChart() {
+        return chart;
+    }
+
+    public ChartPanel getChartPanel() {
+        return chartPanel;
+    }
+
+    // Görünen aralığı yükler; aralık son istenenle aynıysa bir şey yapmaz. EDT'den çağrılmalıdır
+    public void reload() {
+        Range range = dateAxis.getRange();
+        if (range.equals(requestedRange)) {
+            return;
+        }
+        requestedRange = range;
+        int sequence = ++requestSequence;
+        loader.load(new Date((long) range.getLowerBound()), new Date((long) range.getUpperBound()))
+            .thenAcceptAsync(loaded -> {
+                // Bu arada yeni bir aralık istendiyse eski sonuç gösterilmez
+                if (sequence == requestSequence) {
+                    show(loaded);
+                }
+            }, SwingUtilities::invokeLater)
+            .exceptionally(ex -> {
+                System.err.println("Grafik verisi yüklenemedi: " + ex.getMessage());
+                return null;
+            });
+    }
+
+    private void show(SalesSeries loaded) {
+        series = loaded;
+        int width = chartPanel.getWidth() > 0 ? chartPanel.getWidth() : chartPanel.getPreferredSize().width;
+        int[] points = LttbDownsampler.downsample(loaded, Math.max(width, MIN_POINTS));
+
+        double[][] data = new double[2][points.length];
+        for (int i = 0; i < points.length; i++) {
+            data[0][i] = loaded.getTime(points[i]);
+            data[1][i] = loaded.getAmount(points[i]);
+        }
+        // Aynı anahtarla eklenen seri öncekinin yerini alır
+        dataset.addSeries(SERIES_KEY, data);
+    }
+}
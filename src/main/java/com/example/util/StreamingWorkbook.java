@@ -0,0 +1,308 @@
+package com.example.util;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Veri satırları bellekte tutulmadan yazılan .xlsx çalışma kitabı. Paketin sabit
+ * parçaları (içerik türleri, ilişkiler, workbook, stiller) ve her sayfanın sütun
+ * genişlikleriyle başlık satırı doğrudan XML olarak yazılır; ardından sayfanın
+ * satırları aynı zip girdisine akıtılır.
+ *
+ * POI kullanılmaz: SXSSFSheet her sayfada AutoSizeColumnTracker kurarak AWT yazı
+ * tipi sistemini, XSSFWorkbook de XMLBeans'i yükler ve ReportCli'nin açılışını
+ * saniyelerce uzatır. Sütun genişlikleri sabittir, tek stil kalın ve ortalı başlıktır.
+ */
+final class StreamingWorkbook {
+    private static final int COLUMN_WIDTH = 15; // karakter
+    private static final int MAX_SHEET_NAME_LENGTH = 31;
+
+    private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+    private static final String MAIN_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String REL_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    private static final String PACKAGE_REL_NS = "http://schemas.openxmlformats.org/package/2006/relationships";
+    private static final String CONTENT_TYPE_PREFIX = "application/vnd.openxmlformats-officedocument.spreadsheetml.";
+
+    private static final String ROOT_RELS = XML_HEADER
+        + "<Relationships xmlns=\"" + PACKAGE_REL_NS + "\">"
+        + "<Relationship Id=\"rId1\" Type=\"" + REL_NS + "/officeDocument\" Target=\"xl/workbook.xml\"/>"
+        + "</Relationships>";
+
+    // Stil 0 varsayılan, stil 1 başlık: kalın yazı tipi, ortalı
+    private static final String STYLES = XML_HEADER
+        + "<styleSheet xmlns=\"" + MAIN_NS + "\">"
+        + "<fonts count=\"2\">"
+        + "<font><sz val=\"11\"/><name val=\"Calibri\"/><family val=\"2\"/></font>"
+        + "<font><b/><sz val=\"11\"/><name val=\"Calibri\"/><family val=\"2\"/></font>"
+        + "</fonts>"
+        + "<fills count=\"2\"><fill><patternFill patternType=\"none\"/></fill>"
+        + "<fill><patternFill patternType=\"gray125\"/></fill></fills>"
+        + "<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/></border></borders>"
+        + "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>"
+        + "<cellXfs count=\"2\">"
+        + "<xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/>"
+        + "<xf numFmtId=\"0\" fontId=\"1\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyFont=\"1\""
+        + " applyAlignment=\"1\"><alignment horizontal=\"center\"/></xf>"
+        + "</cellXfs>"
+        + "<cellStyles count=\"1\"><cellStyle name=\"Normal\" xfId=\"0\" builtinId=\"0\"/></cellStyles>"
+        + "</styleSheet>";
+    private static final int HEADER_STYLE = 1;
+
+    // Sayfanın başlıktan sonraki satırlarını yazar; dosya yazılırken çağrılır
+    @FunctionalInterface
+    interface SheetBody {
+        void write(Rows rows) throws SQLException;
+    }
+
+    private record Sheet(String name, String[] columns, SheetBody body) {
+    }
+
+    private final List<Sheet> sheets = new ArrayList<>();
+
+    void addSheet(String name, String[] columns, SheetBody body) {
+        if (name.isEmpty() || name.length() > MAX_SHEET_NAME_LENGTH
+                || name.chars().anyMatch(c -> "[]*?/\\:".indexOf(c) >= 0)) {
+            throw new IllegalArgumentException("Geçersiz sayfa adı: " + name);
+        }
+        for (Sheet sheet : sheets) {
+            if (sheet.name().equalsIgnoreCase(name)) {
+                throw new IllegalArgumentException("Bu sayfa adı zaten kullanımda: " + name);
+            }
+        }
+        sheets.add(new Sheet(name, columns.clone(), body));
+    }
+
+    // Dosya önce geçici adla yazılır, başarıyla bitince yerine taşınır; hata ya da
+    // iptal durumunda yarım dosya bırakılmaz, varsa eski dosya korunur
+    void write(Path file) throws IOException, SQLException {
+        Path target = file.toAbsolutePath();
+        Path tempFile = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+                write(out);
+            }
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | SQLException | RuntimeException e) {
+            deleteQuietly(tempFile);
+            throw e;
+        }
+    }
+
+    private void write(OutputStream out) throws IOException, SQLException {
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            // Writer kapatılmaz; zip akışı kapatılır
+            Writer writer = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8));
+            writeEntry(zip, writer, "[Content_Types].xml", contentTypes());
+            writeEntry(zip, writer, "_rels/.rels", ROOT_RELS);
+            writeEntry(zip, writer, "xl/workbook.xml", workbook());
+            writeEntry(zip, writer, "xl/_rels/workbook.xml.rels", workbookRels());
+            writeEntry(zip, writer, "xl/styles.xml", STYLES);
+            for (int i = 0; i < sheets.size(); i++) {
+                zip.putNextEntry(new ZipEntry(sheetPart(i)));
+                writeSheet(sheets.get(i), writer);
+                writer.flush();
+                zip.closeEntry();
+            }
+        }
+    }
+
+    private static void writeEntry(ZipOutputStream zip, Writer writer, String name, String xml) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        writer.write(xml);
+        writer.flush();
+        zip.closeEntry();
+    }
+
+    private static String sheetPart(int index) {
+        return "xl/worksheets/sheet" + (index + 1) + ".xml";
+    }
+
+    private String contentTypes() {
+        StringBuilder xml = new StringBuilder(XML_HEADER)
+            .append("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">")
+            .append("<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>")
+            .append("<Default Extension=\"xml\" ContentType=\"application/xml\"/>")
+            .append("<Override PartName=\"/xl/workbook.xml\" ContentType=\"")
+            .append(CONTENT_TYPE_PREFIX).append("sheet.main+xml\"/>")
+            .append("<Override PartName=\"/xl/styles.xml\" ContentType=\"")
+            .append(CONTENT_TYPE_PREFIX).append("styles+xml\"/>");
+        for (int i = 0; i < sheets.size(); i++) {
+            xml.append("<Override PartName=\"/").append(sheetPart(i)).append("\" ContentType=\"")
+                .append(CONTENT_TYPE_PREFIX).append("worksheet+xml\"/>");
+        }
+        return xml.append("</Types>").toString();
+    }
+
+    // Sayfa i'nin ilişki kimliği rId(i+1); stiller son kimliği alır
+    private String workbook() {
+        StringBuilder xml = new StringBuilder(XML_HEADER)
+            .append("<workbook xmlns=\"").append(MAIN_NS).append("\" xmlns:r=\"").append(REL_NS).append("\">")
+            .append("<sheets>");
+        for (int i = 0; i < sheets.size(); i++) {
+            xml.append("<sheet name=\"").append(Rows.escape(sheets.get(i).name()))
+                .append("\" sheetId=\"").append(i + 1).append("\" r:id=\"rId").append(i + 1).append("\"/>");
+        }
+        return xml.append("</sheets></workbook>").toString();
+    }
+
+    private String workbookRels() {
+        StringBuilder xml = new StringBuilder(XML_HEADER)
+            .append("<Relationships xmlns=\"").append(PACKAGE_REL_NS).append("\">");
+        for (int i = 0; i < sheets.size(); i++) {
+            xml.append("<Relationship Id=\"rId").append(i + 1).append("\" Type=\"").append(REL_NS)
+                .append("/worksheet\" Target=\"worksheets/sheet").append(i + 1).append(".xml\"/>");
+        }
+        xml.append("<Relationship Id=\"rId").append(sheets.size() + 1).append("\" Type=\"").append(REL_NS)
+            .append("/styles\" Target=\"styles.xml\"/>");
+        return xml.append("</Relationships>").toString();
+    }
+
+    // Sütun genişlikleri ve başlık satırı yazılır, ardından satırlar sheetData'ya akıtılır
+    private static void writeSheet(Sheet sheet, Writer writer) throws IOException, SQLException {
+        String[] columns = sheet.columns();
+        writer.write(XML_HEADER);
+        writer.write("<worksheet xmlns=\"" + MAIN_NS + "\">");
+        if (columns.length > 0) {
+            writer.write("<cols><col min=\"1\" max=\"" + columns.length + "\" width=\"" + COLUMN_WIDTH
+                + "\" customWidth=\"1\"/></cols>");
+        }
+        writer.write("<sheetData>");
+
+        Rows rows = new Rows(writer);
+        try {
+            rows.header(columns);
+            sheet.body().write(rows);
+            rows.endRow();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.write("</sheetData></worksheet>");
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("Geçici dosya silinemedi: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Bir sayfanın satırlarını XML olarak yazar. Satır numaraları 0 tabanlıdır ve
+     * artan sırada verilmelidir (0 başlık satırıdır); boş satırlar atlanabilir.
+     * Metinler satır içi (inline) yazılır, paylaşılan metin tablosu kullanılmaz.
+     */
+    static final class Rows {
+        private static final int LAST_ROW = 1_048_575; // Excel 2007+ sınırı, 0 tabanlı
+
+        private final Writer writer;
+        private int rowNum;
+        private boolean rowOpen;
+
+        private Rows(Writer writer) {
+            this.writer = writer;
+        }
+
+        // Başlık satırı (satır 0) HEADER_STYLE ile yazılır
+        private void header(String[] columns) {
+            rowOpen = true;
+            write("<row r=\"1\">");
+            for (int i = 0; i < columns.length; i++) {
+                write("<c r=\"" + cellRef(i) + "\" s=\"" + HEADER_STYLE + "\" t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+                write(escape(columns[i]));
+                write("</t></is></c>");
+            }
+        }
+
+        void startRow(int rowNum) {
+            if (rowNum <= this.rowNum) {
+                throw new IllegalArgumentException("Satırlar artan sırada yazılmalıdır: " + rowNum);
+            }
+            if (rowNum > LAST_ROW) {
+                throw new IllegalArgumentException("Sayfa en fazla " + (LAST_ROW + 1) + " satır alabilir.");
+            }
+            endRow();
+            this.rowNum = rowNum;
+            rowOpen = true;
+            write("<row r=\"" + (rowNum + 1) + "\">");
+        }
+
+        void number(int column, double value) {
+            write("<c r=\"" + cellRef(column) + "\"><v>" + value + "</v></c>");
+        }
+
+        // null metin boş hücre sayılır ve yazılmaz
+        void text(int column, String value) {
+            if (value == null) {
+                return;
+            }
+            write("<c r=\"" + cellRef(column) + "\" t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+            write(escape(value));
+            write("</t></is></c>");
+        }
+
+        private void endRow() {
+            if (rowOpen) {
+                write("</row>");
+                rowOpen = false;
+            }
+        }
+
+        // 0 -> A1, 25 -> Z1, 26 -> AA1
+        private String cellRef(int column) {
+            StringBuilder letters = new StringBuilder(4);
+            for (int n = column + 1; n > 0; n = (n - 1) / 26) {
+                letters.insert(0, (char) ('A' + (n - 1) % 26));
+            }
+            return letters.append(rowNum + 1).toString();
+        }
+
+        // XML'de geçersiz kontrol karakterleri (sekme ve satır sonları dışında) atılır
+        private static String escape(String text) {
+            StringBuilder sb = null;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                String replacement = switch (c) {
+                    case '&' -> "&amp;";
+                    case '<' -> "&lt;";
+                    case '>' -> "&gt;";
+                    case '"' -> "&quot;";
+                    default -> c < 0x20 && c != '\t' && c != '\n' && c != '\r' ? "" : null;
+                };
+                if (replacement != null && sb == null) {
+                    sb = new StringBuilder(text.length() + 16).append(text, 0, i);
+                }
+                if (sb != null) {
+                    if (replacement != null) {
+                        sb.append(replacement);
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+            return sb == null ? text : sb.toString();
+        }
+
+        private void write(String text) {
+            try {
+                writer.write(text);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example;
+
+import com.example.db.DatabaseManager;
+import com.example.db.TestDatabase;
+import com.example.model.Product;
+import com.example.model.Sale;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.swing.SwingUtilities;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ProductTableModelTest {
+    @TempDir
+    Path tempDir;
+
+    private DatabaseManager dbManager;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dbManager = TestDatabase.open(tempDir);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestDatabase.close(dbManager);
+    }
+
+    // Toplu satışta aynı ürünün iki satışı sürümü iki artırır; tablodaki ürün
+    // bununla düzenlenince yanlış bir çakışma hatası alınmamalı
+    @Test
+    void cachedProductCanBeUpdatedAfterBatchWithRepeatedProduct() throws Exception {
+        Product product = new Product("Çay", 6, 10, 10);
+        dbManager.addProduct(product);
+
+        ProductTableModel model = new ProductTableModel(dbManager);
+        model.refresh();
+        Product cached = model.getProductAt(0);
+        dbManager.addChangeListener(model);
+
+        dbManager.addSales(List.of(
+            new Sale(product.getId(), product.getName(), 1, 10, 6),
+            new Sale(product.getId(), product.getName(), 2, 10, 6)));
+        // Satır güncellemesi EDT'de uygulanır
+        SwingUtilities.invokeAndWait(() -> { });
+
+        assertSame(cached, model.getProductAt(0));
+        assertEquals(7, cached.getQuantity());
+        assertEquals(dbManager.getProduct(product.getId()).getVersion(), cached.getVersion());
+
+        cached.setSellPrice(12);
+        dbManager.updateProduct(cached);
+        assertEquals(12, dbManager.getProduct(product.getId()).getSellPrice());
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.db;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConnectionPoolTest {
+    private static final int TIMEOUT_MS = 300;
+
+    @TempDir
+    Path tempDir;
+
+    private ConnectionPool pool;
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    private ConnectionPool openPool(int size, int acquireTimeoutMs) throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("db.url", "jdbc:sqlite:" + tempDir.resolve("pool.db").toAbsolutePath());
+        properties.setProperty("db.pool.acquire.timeout.ms", String.valueOf(acquireTimeoutMs));
+        pool = new ConnectionPool(new StorageProfile(properties), size, false, new StatementCacheStats(),
+            new DatabaseMetrics(0));
+        return pool;
+    }
+
+    @Test
+    void exhaustedPoolTimesOut() throws Exception {
+        openPool(2, TIMEOUT_MS);
+        PooledConnection first = pool.acquire();
+        PooledConnection second = pool.acquire();
+
+        long start = System.nanoTime();
+        SQLException e = assertThrows(SQLException.class, pool::acquire);
+        long waitedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals("Bağlantı havuzunda boş bağlantı bulunamadı.", e.getMessage());
+        assertTrue(waitedMs >= TIMEOUT_MS - 50, "Süre dolmadan vazgeçildi: " + waitedMs + " ms");
+        first.close();
+        second.close();
+    }
+
+    @Test
+    void waitingAcquireGetsReleasedConnection() throws Exception {
+        openPool(1, 5_000);
+        PooledConnection held = pool.acquire();
+
+        CompletableFuture<PooledConnection> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pool.acquire();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        Thread.sleep(100);
+        assertFalse(waiting.isDone());
+
+        held.close();
+        PooledConnection acquired = waiting.get(2, TimeUnit.SECONDS);
+        assertSame(held, acquired);
+        acquired.close();
+    }
+
+    // İade edilmemiş işlem bir sonraki kullanıcıya taşınmamalı
+    @Test
+    void releaseRollsBackOpenTransaction() throws Exception {
+        openPool(1, TIMEOUT_MS);
+        try (PooledConnection conn = pool.acquire();
+             Statement statement = conn.connection().createStatement()) {
+            statement.execute("CREATE TABLE t (x INTEGER)");
+        }
+        try (PooledConnection conn = pool.acquire();
+             Statement statement = conn.connection().createStatement()) {
+            conn.connection().setAutoCommit(false);
+            statement.execute("INSERT INTO t VALUES (1)");
+        }
+
+        try (PooledConnection next = pool.acquire();
+             Statement statement = next.connection().createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM t")) {
+            assertTrue(next.connection().getAutoCommit());
+            rs.next();
+            assertEquals(0, rs.getInt(1));
+        }
+    }
+
+    @Test
+    void acquireAfterCloseFails() throws Exception {
+        openPool(2, TIMEOUT_MS);
+        pool.close();
+
+        SQLException e = assertThrows(SQLException.class, pool::acquire);
+        assertEquals("Bağlantı havuzu kapatılmış.", e.getMessage());
+    }
+
+    // Kapanış sırasında iade edilen bağlantı kapatılır ve close() süre dolmadan biter
+    @Test
+    void returnAfterCloseClosesConnection() throws Exception {
+        openPool(2, 10_000);
+        PooledConnection held = pool.acquire();
+
+        long start = System.nanoTime();
+        CompletableFuture<Void> closing = CompletableFuture.runAsync(pool::close);
+        Thread.sleep(100);
+        assertFalse(closing.isDone(), "close() ödünçteki bağlantıyı beklemedi");
+
+        held.close();
+        closing.get(2, TimeUnit.SECONDS);
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 5_000);
+        assertTrue(held.connection().isClosed());
+        assertThrows(SQLException.class, pool::acquire);
+    }
+
+    // Hiç iade edilmeyen bağlantı kapanışı sonsuza dek bekletmez
+    @Test
+    void closeDoesNotWaitForLeakedConnectionForever() throws Exception {
+        openPool(2, TIMEOUT_MS);
+        PooledConnection leaked = pool.acquire();
+
+        long start = System.nanoTime();
+        pool.close();
+        long closedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(closedMs < TIMEOUT_MS + 2_000, "Kapanış çok uzun sürdü: " + closedMs + " ms");
+        assertTrue(leaked.connection().isClosed());
+        leaked.close();
+    }
+}
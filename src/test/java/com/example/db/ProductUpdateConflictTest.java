@@ -0,0 +1,112 @@
+package com.example.db;
+
+import com.example.model.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Aynı ürünü aynı sürümden düzenleyen kullanıcılardan yalnızca biri kazanmalı;
+ * diğerlerinin değişikliği sessizce üzerine yazılmamalı (kayıp güncelleme).
+ */
+class ProductUpdateConflictTest {
+    @TempDir
+    Path tempDir;
+
+    private DatabaseManager dbManager;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dbManager = TestDatabase.open(tempDir);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestDatabase.close(dbManager);
+    }
+
+    @Test
+    void staleCopyIsRejected() throws Exception {
+        int id = addProduct();
+        Product first = dbManager.getProduct(id);
+        Product second = dbManager.getProduct(id);
+
+        first.setSellPrice(12);
+        dbManager.updateProduct(first);
+
+        second.setQuantity(99);
+        assertThrows(SQLException.class, () -> dbManager.updateProduct(second));
+
+        Product stored = dbManager.getProduct(id);
+        assertEquals(12, stored.getSellPrice());
+        assertEquals(20, stored.getQuantity());
+        assertEquals(first.getVersion(), stored.getVersion());
+    }
+
+    @Test
+    void concurrentEditsOfSameVersionHaveOneWinner() throws Exception {
+        int id = addProduct();
+        int threads = 8;
+        List<Product> copies = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            copies.add(dbManager.getProduct(id));
+        }
+        int initialVersion = copies.get(0).getVersion();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                Product copy = copies.get(i);
+                copy.setName("Çay " + i);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        dbManager.updateProduct(copy);
+                        return true;
+                    } catch (SQLException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int winners = 0;
+            String winnerName = null;
+            for (int i = 0; i < threads; i++) {
+                if (futures.get(i).get(30, TimeUnit.SECONDS)) {
+                    winners++;
+                    winnerName = copies.get(i).getName();
+                }
+            }
+
+            assertEquals(1, winners);
+            Product stored = dbManager.getProduct(id);
+            assertEquals(winnerName, stored.getName());
+            assertEquals(initialVersion + 1, stored.getVersion());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int addProduct() throws SQLException {
+        Product product = new Product("Çay", 6, 10, 20);
+        dbManager.addProduct(product);
+        return product.getId();
+    }
+}
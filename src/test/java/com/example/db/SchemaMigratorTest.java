@@ -0,0 +1,109 @@
+package com.example.db;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchemaMigratorTest {
+    @TempDir
+    Path tempDir;
+
+    private DatabaseManager dbManager;
+
+    @AfterEach
+    void tearDown() {
+        TestDatabase.close(dbManager);
+    }
+
+    // Benzersiz barkod indeksinden önceki (sürüm 1) bir veritabanı
+    private void createVersion1Database(String productColumns, String... inserts) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(
+                "jdbc:sqlite:" + tempDir.resolve("stock.db").toAbsolutePath());
+             Statement statement = connection.createStatement()) {
+            statement.execute("""
+                CREATE TABLE products (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    name TEXT NOT NULL,
+                    buy_price REAL NOT NULL,
+                    sell_price REAL NOT NULL,
+                    quantity INTEGER NOT NULL,
+                    critical_level INTEGER NOT NULL,
+                    barcode TEXT,
+                    supplier TEXT
+                    """ + productColumns + """
+                )
+                """);
+            statement.execute("""
+                CREATE TABLE sales (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    product_id INTEGER NOT NULL,
+                    product_name TEXT NOT NULL,
+                    quantity INTEGER NOT NULL,
+                    unit_price REAL NOT NULL,
+                    total_amount REAL NOT NULL,
+                    sale_date TIMESTAMP NOT NULL,
+                    profit REAL NOT NULL
+                )
+                """);
+            statement.execute("""
+                CREATE TABLE schema_version (
+                    version INTEGER PRIMARY KEY,
+                    description TEXT NOT NULL,
+                    applied_at TIMESTAMP NOT NULL
+                )
+                """);
+            statement.execute("INSERT INTO schema_version VALUES (1, 'Temel tablolar', 0)");
+            for (String insert : inserts) {
+                statement.execute(insert);
+            }
+        }
+    }
+
+    @Test
+    void duplicateBarcodesAreRemovedAndRecorded() throws Exception {
+        createVersion1Database("",
+            "INSERT INTO products (id, name, buy_price, sell_price, quantity, critical_level, barcode) VALUES "
+                + "(1, 'Çay', 6, 10, 5, 1, '869'), (2, 'Çay 2', 6, 10, 5, 1, '869'), "
+                + "(3, 'Şeker', 4, 7, 5, 1, '870'), (4, 'Tuz', 2, 3, 5, 1, '   ')");
+
+        dbManager = TestDatabase.open(tempDir);
+
+        assertEquals(1, dbManager.findProductIdByBarcode("869"));
+        assertEquals(3, dbManager.findProductIdByBarcode("870"));
+        assertNull(dbManager.getProduct(2).getBarcode());
+        assertNull(dbManager.getProduct(4).getBarcode());
+        assertTrue(dbManager.getSchemaVersion() > 2);
+
+        try (Connection connection = DriverManager.getConnection(
+                "jdbc:sqlite:" + tempDir.resolve("stock.db").toAbsolutePath());
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                 "SELECT product_id, barcode, kept_product_id FROM barcode_conflicts")) {
+            assertTrue(rs.next());
+            assertEquals(2, rs.getInt(1));
+            assertEquals("869", rs.getString(2));
+            assertEquals(1, rs.getInt(3));
+        }
+    }
+
+    // Göç 4 sürüm sütununu ekler; sütun zaten varsa göç başarısız olur ve açılış durmalı
+    @Test
+    void failedMigrationStopsStartup() throws Exception {
+        createVersion1Database(", version INTEGER NOT NULL DEFAULT 0");
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> TestDatabase.open(tempDir));
+        assertTrue(e.getMessage().contains("sürüm 4"), e.getMessage());
+    }
+}
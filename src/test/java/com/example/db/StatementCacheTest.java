@@ -0,0 +1,143 @@
+package com.example.db;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatementCacheTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void evictsLeastRecentlyUsedStatement() throws Exception {
+        StatementCacheStats stats = new StatementCacheStats();
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+            StatementCache cache = new StatementCache(connection, 2, stats, new DatabaseMetrics(0));
+
+            PreparedStatement a = cache.prepare("SELECT 1");
+            PreparedStatement b = cache.prepare("SELECT 2");
+            assertSame(a, cache.prepare("SELECT 1"));
+            PreparedStatement c = cache.prepare("SELECT 3");
+
+            // En son kullanılan "SELECT 1" kalır, "SELECT 2" kapatılıp çıkarılır
+            assertEquals(2, cache.size());
+            assertTrue(b.isClosed());
+            assertFalse(a.isClosed());
+            assertFalse(c.isClosed());
+            assertSame(a, cache.prepare("SELECT 1"));
+            assertNotSame(b, cache.prepare("SELECT 2"));
+            assertEquals(2, stats.getHits());
+            assertEquals(4, stats.getMisses());
+
+            cache.closeAll();
+            assertEquals(0, cache.size());
+            assertTrue(a.isClosed());
+        }
+    }
+
+    @Test
+    void uncachedStatementIsNotKept() throws Exception {
+        StatementCacheStats stats = new StatementCacheStats();
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+            StatementCache cache = new StatementCache(connection, 2, stats, new DatabaseMetrics(0));
+            PreparedStatement cached = cache.prepare("SELECT 1");
+
+            try (PreparedStatement once = cache.prepareUncached("SELECT 2")) {
+                assertNotSame(once, cache.prepare("SELECT 2"));
+            }
+            assertSame(cached, cache.prepare("SELECT 1"));
+            cache.closeAll();
+        }
+    }
+
+    // Önbellekten daha fazla farklı sorgu, bağlantılardan daha fazla iş parçacığı:
+    // her bağlantının önbelleği sürekli ifade çıkarır. Çıkarılan (kapatılmış) bir
+    // ifade geri verilmemeli ve her sorgu kendi sonucunu döndürmelidir
+    @Test
+    void evictionUnderContentionReturnsCorrectStatements() throws Exception {
+        int connections = 3;
+        int capacity = 4;
+        int distinctQueries = 10;
+        int threads = 8;
+        int iterations = 300;
+
+        Properties properties = new Properties();
+        properties.setProperty("db.url", "jdbc:sqlite:" + tempDir.resolve("cache.db").toAbsolutePath());
+        properties.setProperty("db.statement.cache.size", String.valueOf(capacity));
+        StatementCacheStats stats = new StatementCacheStats();
+        ConnectionPool pool = new ConnectionPool(new StorageProfile(properties), connections, false, stats,
+            new DatabaseMetrics(0));
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < iterations; i++) {
+                        int query = ThreadLocalRandom.current().nextInt(distinctQueries);
+                        int value = ThreadLocalRandom.current().nextInt(1000);
+                        try (PooledConnection conn = pool.acquire()) {
+                            PreparedStatement pstmt = conn.prepare("SELECT ? + " + query);
+                            pstmt.setInt(1, value);
+                            try (ResultSet rs = pstmt.executeQuery()) {
+                                assertTrue(rs.next());
+                                assertEquals(value + query, rs.getInt(1));
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+            pool.close();
+        }
+
+        assertEquals((long) threads * iterations, stats.getHits() + stats.getMisses());
+        // Kapasite sorgu sayısından küçük olduğundan ilk hazırlıkların ötesinde ıskalama olmalı
+        assertTrue(stats.getMisses() > (long) connections * capacity,
+            "Önbellekten ifade çıkarılmadı: " + stats);
+    }
+
+    @Test
+    void closedStatementIsPreparedAgain() throws Exception {
+        StatementCacheStats stats = new StatementCacheStats();
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+            StatementCache cache = new StatementCache(connection, 2, stats, new DatabaseMetrics(0));
+            PreparedStatement first = cache.prepare("SELECT 1");
+            first.close();
+
+            PreparedStatement second = cache.prepare("SELECT 1");
+            assertNotSame(first, second);
+            assertFalse(second.isClosed());
+            assertEquals(2, stats.getMisses());
+            cache.closeAll();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.db;
+
+import com.example.model.Product;
+import com.example.model.Sale;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Aynı ürünü aynı anda satan iş parçacıkları stoğu eksiye düşürmemeli;
+ * kabul edilen satışlar başlangıç stoğunu aşmamalıdır.
+ */
+class StockDecrementTest {
+    private static final int THREADS = 8;
+    private static final int ATTEMPTS_PER_THREAD = 20;
+
+    @TempDir
+    Path tempDir;
+
+    private DatabaseManager dbManager;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dbManager = TestDatabase.open(tempDir);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestDatabase.close(dbManager);
+    }
+
+    @Test
+    void concurrentSalesNeverOversell() throws Exception {
+        int stock = 50;
+        Product product = addProduct("Çay", stock);
+
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        runConcurrently(() -> {
+            try {
+                dbManager.addSale(new Sale(product.getId(), product.getName(), 1, 10, 6));
+                accepted.incrementAndGet();
+            } catch (InsufficientStockException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        int quantity = dbManager.getProduct(product.getId()).getQuantity();
+        assertTrue(quantity >= 0, "Stok eksiye düştü: " + quantity);
+        assertEquals(stock, accepted.get());
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD - stock, rejected.get());
+        assertEquals(0, quantity);
+        assertEquals(stock, dbManager.countSalesAfter(0));
+    }
+
+    // Toplu satışta stoğu yetmeyen bir satır tüm işlemi geri almalı; diğer ürünün
+    // stoğu da düşülmemeli
+    @Test
+    void concurrentBatchesAreAllOrNothing() throws Exception {
+        Product tea = addProduct("Çay", 30);
+        Product sugar = addProduct("Şeker", 30);
+
+        AtomicInteger accepted = new AtomicInteger();
+        runConcurrently(() -> {
+            try {
+                dbManager.addSales(List.of(
+                    new Sale(tea.getId(), tea.getName(), 1, 10, 6),
+                    new Sale(sugar.getId(), sugar.getName(), 2, 5, 3)));
+                accepted.incrementAndGet();
+            } catch (InsufficientStockException e) {
+                assertEquals(sugar.getId(), e.getProductId());
+            }
+        });
+
+        assertEquals(15, accepted.get());
+        assertEquals(15, dbManager.getProduct(tea.getId()).getQuantity());
+        assertEquals(0, dbManager.getProduct(sugar.getId()).getQuantity());
+        assertEquals(2L * accepted.get(), dbManager.countSalesAfter(0));
+    }
+
+    private Product addProduct(String name, int quantity) throws Exception {
+        Product product = new Product(name, 6, 10, quantity);
+        dbManager.addProduct(product);
+        return product;
+    }
+
+    @FunctionalInterface
+    private interface SaleAttempt {
+        void run() throws Exception;
+    }
+
+    // Tüm iş parçacıkları aynı anda başlar; beklenmeyen hata testi başarısız yapar
+    private void runConcurrently(SaleAttempt attempt) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                        attempt.run();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.db;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Testler için geçici dizinde boş bir veritabanı açar. Ayarlar stock.db.config
+ * ile verilir; metrik kaydı ve zamanlanmış arşivleme kapalıdır.
+ */
+public final class TestDatabase {
+    private TestDatabase() {
+    }
+
+    public static DatabaseManager open(Path dir) throws IOException {
+        Path config = dir.resolve("database.properties");
+        Files.writeString(config, String.join("\n",
+            "db.url=jdbc:sqlite:" + dir.resolve("stock.db").toAbsolutePath(),
+            "sales.archive.dir=" + dir.resolve("archive").toAbsolutePath(),
+            "sales.archive.enabled=false",
+            "metrics.log.interval.s=0",
+            ""));
+        System.setProperty(StorageProfile.CONFIG_PROPERTY, config.toString());
+        return DatabaseManager.getInstance();
+    }
+
+    public static void close(DatabaseManager dbManager) {
+        if (dbManager != null) {
+            dbManager.close();
+        }
+        System.clearProperty(StorageProfile.CONFIG_PROPERTY);
+    }
+}
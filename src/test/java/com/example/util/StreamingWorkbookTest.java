@@ -0,0 +1,93 @@
+package com.example.util;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * StreamingWorkbook POI'siz yazar; çıktının Excel okuyucusunun (burada XSSF)
+ * beklediği paket olduğu geri okunarak denetlenir.
+ */
+class StreamingWorkbookTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void writtenWorkbookReadsBack() throws Exception {
+        StreamingWorkbook workbook = new StreamingWorkbook();
+        workbook.addSheet("Satış & İade", new String[] {"Ürün", "Miktar"}, rows -> {
+            rows.startRow(1);
+            rows.text(0, "Çay <1 kg> \"Rize\"");
+            rows.number(1, 2.5);
+            rows.startRow(3);
+            rows.text(0, null);
+            rows.number(27, 7);
+        });
+        workbook.addSheet("Boş", new String[] {"A"}, rows -> { });
+        Path file = tempDir.resolve("rapor.xlsx");
+        workbook.write(file);
+
+        try (InputStream in = Files.newInputStream(file);
+             XSSFWorkbook read = new XSSFWorkbook(in)) {
+            assertEquals(2, read.getNumberOfSheets());
+            Sheet sheet = read.getSheetAt(0);
+            assertEquals("Satış & İade", sheet.getSheetName());
+            assertEquals(15 * 256, sheet.getColumnWidth(1));
+
+            Row header = sheet.getRow(0);
+            assertEquals("Miktar", header.getCell(1).getStringCellValue());
+            CellStyle style = header.getCell(0).getCellStyle();
+            assertTrue(read.getFontAt(style.getFontIndex()).getBold());
+            assertEquals(HorizontalAlignment.CENTER, style.getAlignment());
+
+            assertEquals("Çay <1 kg> \"Rize\"", sheet.getRow(1).getCell(0).getStringCellValue());
+            assertEquals(2.5, sheet.getRow(1).getCell(1).getNumericCellValue());
+            assertNull(sheet.getRow(2));
+            assertNull(sheet.getRow(3).getCell(0));
+            // 27. sütun AB
+            assertEquals("AB4", sheet.getRow(3).getCell(27).getAddress().formatAsString());
+            assertEquals(0, read.getSheetAt(1).getLastRowNum());
+        }
+    }
+
+    // Yazma yarıda kalırsa eski dosya korunur, geçici dosya bırakılmaz
+    @Test
+    void failedWriteKeepsPreviousFile() throws Exception {
+        Path file = tempDir.resolve("rapor.xlsx");
+        Files.writeString(file, "eski");
+
+        StreamingWorkbook workbook = new StreamingWorkbook();
+        workbook.addSheet("Satış", new String[] {"A"}, rows -> {
+            rows.startRow(1);
+            throw new SQLException("bağlantı koptu");
+        });
+
+        assertThrows(SQLException.class, () -> workbook.write(file));
+        assertEquals("eski", Files.readString(file));
+        assertFalse(Files.exists(tempDir.resolve("rapor.xlsx.tmp")));
+    }
+
+    @Test
+    void invalidSheetNameIsRejected() {
+        StreamingWorkbook workbook = new StreamingWorkbook();
+        workbook.addSheet("Satış", new String[] {"A"}, rows -> { });
+
+        assertThrows(IllegalArgumentException.class, () -> workbook.addSheet("satış", new String[] {"A"}, rows -> { }));
+        assertThrows(IllegalArgumentException.class, () -> workbook.addSheet("Ocak/Şubat", new String[] {"A"}, rows -> { }));
+    }
+}